@@ -0,0 +1,50 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.util.BoardUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdjacencyBenchmark {
+
+    @Param({"9", "12", "16"})
+    private int boardSize;
+
+    private Dot[] dots;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        dots = new Dot[boardSize * boardSize];
+        for (int cell = 0; cell < dots.length; cell++) {
+            dots[cell] = Dot.of(cell % boardSize, cell / boardSize);
+        }
+    }
+
+    // Walks the whole board so corner, edge and inner cells are all measured
+    @Benchmark
+    public Set<Dot> getAdjacentCells() {
+        var dot = dots[next];
+        next = next + 1 == dots.length ? 0 : next + 1;
+        return BoardUtils.getAdjacentCells(dot, boardSize);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.process.MoveResult;
+import com.daba.sb.process.move.impl.AiMove;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// AiMove.make with think() excluded: headless AIs never pause
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AiBenchmark {
+
+    @Param({"9", "12", "16"})
+    private int boardSize;
+
+    @Param({"light", "standard", "heavy"})
+    private String fleet;
+
+    // Share of the board already struck when a single hunt decision is measured
+    @Param({"0.25", "0.75"})
+    private double struckShare;
+
+    private List<ShipConfig> shipConfigs;
+    private Board huntBoard;
+    private AiMove huntAi;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        shipConfigs = Fleets.of(fleet);
+        huntBoard = Fleets.placedBoard(boardSize, shipConfigs, random);
+        List<Dot> cells = new ArrayList<>();
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                cells.add(Dot.of(x, y));
+            }
+        }
+        Collections.shuffle(cells, random);
+        for (int i = 0; i < cells.size() * struckShare && !huntBoard.isGameOver(); i++) {
+            huntBoard.strike(cells.get(i));
+        }
+        huntAi = AiMove.headless();
+    }
+
+    // A hunt-mode decision never changes the AI state, so the same instance can decide again and again
+    @Benchmark
+    public MoveResult huntDecision() {
+        return huntAi.make(huntBoard);
+    }
+
+    // One AI shooting a whole fleet down, decisions and notifications included
+    @Benchmark
+    public int fullGame() {
+        var board = Fleets.placedBoard(boardSize, shipConfigs, random);
+        var ai = AiMove.headless();
+        int shots = 0;
+        while (!board.isGameOver()) {
+            var result = board.strike(ai.make(board).getDot());
+            ai.getNotified(result);
+            shots++;
+        }
+        return shots;
+    }
+
+}
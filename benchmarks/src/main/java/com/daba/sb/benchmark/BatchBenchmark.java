@@ -0,0 +1,118 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.BoardBatch;
+import com.daba.sb.model.board.Ship;
+import com.daba.sb.model.process.StrikeResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The same games, each board shooting its own random order of every cell until its fleet is sunk: once on a Board
+// object per game, once on a batch of all of them in lockstep
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BatchBenchmark {
+
+    @Param({"8", "10", "16"})
+    private int boardSize;
+
+    @Param({"1024"})
+    private int games;
+
+    // Whether the batch may use the Vector API; it only can when seabattle was installed with -Pvector
+    @Param({"true", "false"})
+    private boolean vector;
+
+    private List<ShipConfig> shipConfigs;
+    private List<Ship>[] placements;
+    // Cell of round r of game g at r * games + g
+    private int[] orders;
+    private BoardBatch batch;
+    private int[] cells;
+    private StrikeResult[] results;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        var random = new Random(42);
+        shipConfigs = Fleets.of("standard");
+        int cellCount = boardSize * boardSize;
+        System.setProperty(BoardBatch.VECTOR_PROPERTY, Boolean.toString(vector));
+        batch = new BoardBatch(boardSize, games, shipConfigs.stream().mapToInt(ShipConfig::getCount).sum());
+        placements = new List[games];
+        orders = new int[cellCount * games];
+        var order = new int[cellCount];
+        for (int game = 0; game < games; game++) {
+            var board = Fleets.placedBoard(boardSize, shipConfigs, random);
+            placements[game] = board.getFleet();
+            batch.load(game, board);
+            for (int cell = 0; cell < cellCount; cell++) {
+                order[cell] = cell;
+            }
+            for (int i = cellCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            for (int round = 0; round < cellCount; round++) {
+                orders[round * games + game] = order[round];
+            }
+        }
+        cells = new int[games];
+        results = new StrikeResult[games];
+    }
+
+    @Benchmark
+    public int boardPerGame() {
+        int strikes = 0;
+        for (int game = 0; game < games; game++) {
+            var board = new Board(boardSize);
+            for (Ship ship : placements[game]) {
+                board.placeShip(ship.getSize(), ship.getBase(), ship.getAlignment());
+            }
+            for (int round = 0; !board.isGameOver(); round++) {
+                board.strike(orders[round * games + game]);
+                strikes++;
+            }
+        }
+        return strikes;
+    }
+
+    @Benchmark
+    public int batchInLockstep() {
+        batch.clearStrikes();
+        int strikes = 0;
+        for (int round = 0; batch.countGamesOver() < games; round++) {
+            for (int game = 0; game < games; game++) {
+                if (batch.isGameOver(game)) {
+                    cells[game] = -1;
+                } else {
+                    cells[game] = orders[round * games + game];
+                    strikes++;
+                }
+            }
+            batch.strike(cells, results);
+        }
+        return strikes;
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.board.Ship;
+import com.daba.sb.model.process.StrikeResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int ATTEMPTS = 1024;
+
+    @Param({"9", "12", "16"})
+    private int boardSize;
+
+    @Param({"light", "standard", "heavy"})
+    private String fleet;
+
+    private List<ShipConfig> shipConfigs;
+
+    // A board with the whole fleet placed, and one struck half way through
+    private Board fullBoard;
+    private Board halfStruckBoard;
+    // Struck and taken back over and over, the way a lookahead search uses one board
+    private Board reversibleBoard;
+
+    private List<Ship> placement;
+    private Dot[] strikeOrder;
+
+    private int[] attemptSize;
+    private int[] attemptX;
+    private int[] attemptY;
+    private Alignment[] attemptAlignment;
+    private int attempt;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        shipConfigs = Fleets.of(fleet);
+        fullBoard = Fleets.placedBoard(boardSize, shipConfigs, random);
+        placement = new ArrayList<>(fullBoard.getFleet());
+
+        List<Dot> cells = new ArrayList<>();
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                cells.add(Dot.of(x, y));
+            }
+        }
+        Collections.shuffle(cells, random);
+        strikeOrder = cells.toArray(new Dot[0]);
+
+        halfStruckBoard = replayPlacement();
+        for (int i = 0; i < strikeOrder.length / 2; i++) {
+            halfStruckBoard.strike(strikeOrder[i]);
+        }
+        reversibleBoard = replayPlacement();
+        reversibleBoard.setReversible(true);
+
+        // Only attempts the full board rejects, so measuring them never changes it
+        attemptSize = new int[ATTEMPTS];
+        attemptX = new int[ATTEMPTS];
+        attemptY = new int[ATTEMPTS];
+        attemptAlignment = new Alignment[ATTEMPTS];
+        for (int i = 0; i < ATTEMPTS; ) {
+            attemptSize[i] = placement.get(random.nextInt(placement.size())).getSize();
+            attemptX[i] = random.nextInt(boardSize);
+            attemptY[i] = random.nextInt(boardSize);
+            attemptAlignment[i] = random.nextBoolean() ? Alignment.HORIZONTAL : Alignment.VERTICAL;
+            if (!replayPlacement().placeShip(attemptSize[i], attemptX[i], attemptY[i], attemptAlignment[i])) {
+                i++;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean placeShipAttempt() {
+        int i = attempt++ & ATTEMPTS - 1;
+        return fullBoard.placeShip(attemptSize[i], attemptX[i], attemptY[i], attemptAlignment[i]);
+    }
+
+    @Benchmark
+    public Board placeFleet() {
+        return replayPlacement();
+    }
+
+    @Benchmark
+    public int strikeUntilGameOver() {
+        var board = replayPlacement();
+        int shots = 0;
+        for (Dot dot : strikeOrder) {
+            var result = board.strike(dot);
+            if (result != StrikeResult.DO_AGAIN) {
+                shots++;
+            }
+            if (result.isChangingMove() && board.isGameOver()) {
+                break;
+            }
+        }
+        return shots;
+    }
+
+    // The same game as above, played to the end and taken back strike by strike on one board
+    @Benchmark
+    public int strikeAndUndoGame() {
+        int shots = 0;
+        for (Dot dot : strikeOrder) {
+            var result = reversibleBoard.strike(dot);
+            if (result != StrikeResult.DO_AGAIN) {
+                shots++;
+            }
+            if (result.isChangingMove() && reversibleBoard.isGameOver()) {
+                break;
+            }
+        }
+        while (reversibleBoard.getUndoDepth() > 0) {
+            reversibleBoard.undo();
+        }
+        return shots;
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return halfStruckBoard.isGameOver();
+    }
+
+    private Board replayPlacement() {
+        var board = new Board(boardSize);
+        for (Ship ship : placement) {
+            board.placeShip(ship.getSize(), ship.getBase(), ship.getAlignment());
+        }
+        return board;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.process.StrikeResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compares the bitboard Board against the Figure[][] + HashMap implementation it replaced
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardEngineBenchmark {
+
+    private static final int[] FLEET = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+
+    private static final int ATTEMPTS = 4096;
+
+    // 8 fits a single long, 9 needs the multi-word planes
+    @Param({"8", "9"})
+    private int boardSize;
+
+    private Dot[] attemptDots;
+    private Alignment[] attemptAlignments;
+
+    private final List<Object[]> placement = new ArrayList<>();
+    private Dot[] strikeOrder;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        attemptDots = new Dot[ATTEMPTS];
+        attemptAlignments = new Alignment[ATTEMPTS];
+        for (int i = 0; i < ATTEMPTS; i++) {
+            attemptDots[i] = Dot.of(random.nextInt(boardSize), random.nextInt(boardSize));
+            attemptAlignments[i] = random.nextBoolean() ? Alignment.HORIZONTAL : Alignment.VERTICAL;
+        }
+
+        var board = new Board(boardSize);
+        int attempt = 0;
+        for (int shipSize : FLEET) {
+            while (true) {
+                var dot = attemptDots[attempt % ATTEMPTS];
+                var alignment = attemptAlignments[attempt % ATTEMPTS];
+                attempt++;
+                if (board.placeShip(shipSize, dot, alignment)) {
+                    placement.add(new Object[]{shipSize, dot, alignment});
+                    break;
+                }
+            }
+        }
+
+        List<Dot> cells = new ArrayList<>();
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                cells.add(Dot.of(x, y));
+            }
+        }
+        Collections.shuffle(cells, random);
+        strikeOrder = cells.toArray(new Dot[0]);
+    }
+
+    @Benchmark
+    public Object placeFleetLegacy() {
+        var board = new LegacyBoard(boardSize);
+        int attempt = 0;
+        for (int shipSize : FLEET) {
+            while (!board.placeShip(shipSize, attemptDots[attempt % ATTEMPTS], attemptAlignments[attempt % ATTEMPTS])) {
+                attempt++;
+            }
+        }
+        return board;
+    }
+
+    @Benchmark
+    public Object placeFleetBitboard() {
+        var board = new Board(boardSize);
+        int attempt = 0;
+        for (int shipSize : FLEET) {
+            while (!board.placeShip(shipSize, attemptDots[attempt % ATTEMPTS], attemptAlignments[attempt % ATTEMPTS])) {
+                attempt++;
+            }
+        }
+        return board;
+    }
+
+    @Benchmark
+    public int playOutLegacy() {
+        var board = new LegacyBoard(boardSize);
+        for (Object[] ship : placement) {
+            board.placeShip((int) ship[0], (Dot) ship[1], (Alignment) ship[2]);
+        }
+        int shots = 0;
+        for (Dot dot : strikeOrder) {
+            var result = board.strike(dot);
+            if (result != StrikeResult.DO_AGAIN) {
+                shots++;
+            }
+            if (result.isChangingMove() && board.isGameOver()) {
+                break;
+            }
+        }
+        return shots;
+    }
+
+    @Benchmark
+    public int playOutBitboard() {
+        var board = new Board(boardSize);
+        for (Object[] ship : placement) {
+            board.placeShip((int) ship[0], (Dot) ship[1], (Alignment) ship[2]);
+        }
+        int shots = 0;
+        for (Dot dot : strikeOrder) {
+            var result = board.strike(dot);
+            if (result != StrikeResult.DO_AGAIN) {
+                shots++;
+            }
+            if (result.isChangingMove() && board.isGameOver()) {
+                break;
+            }
+        }
+        return shots;
+    }
+
+}
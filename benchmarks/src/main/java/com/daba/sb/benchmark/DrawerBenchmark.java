@@ -0,0 +1,79 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.Dialogue;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.view.BoardDrawer;
+import com.daba.sb.view.BoardRenderer;
+import com.daba.sb.view.Viewport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Dialogue output is raised to WARN so the board is composed and handed to the logger, but never printed
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.log.com.daba.sb.Dialogue=warn")
+public class DrawerBenchmark {
+
+    @Param({"9", "12", "16"})
+    private int boardSize;
+
+    @Param({"standard"})
+    private String fleet;
+
+    private Board board;
+
+    private BoardRenderer renderer;
+
+    private Viewport viewport;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        board = Fleets.placedBoard(boardSize, Fleets.of(fleet), random);
+        for (int i = 0; i < boardSize * boardSize / 2; i++) {
+            board.strike(Dot.of(random.nextInt(boardSize), random.nextInt(boardSize)));
+        }
+        renderer = new BoardRenderer(board, false);
+        viewport = Viewport.defaultFor(boardSize);
+        renderer.render(viewport);
+    }
+
+    @Benchmark
+    public void drawOwn() {
+        BoardDrawer.drawOwn(Dialogue.join(), board);
+    }
+
+    @Benchmark
+    public void drawOpponents() {
+        BoardDrawer.drawOpponents(Dialogue.join(), board);
+    }
+
+    // A whole frame composed from scratch, without writing it anywhere
+    @Benchmark
+    public CharSequence composeFrame() {
+        return new BoardRenderer(board, false).render(viewport);
+    }
+
+    // The redraw before a move when nothing changed: cached rows are copied into the frame
+    @Benchmark
+    public CharSequence recomposeUnchangedFrame() {
+        return renderer.render(viewport);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.process.ShipsOperations;
+
+import java.util.List;
+import java.util.Random;
+
+// Fleet configurations the benchmarks are parameterised with, and seeded placement for reproducible setups
+final class Fleets {
+
+    private static final List<ShipConfig> LIGHT = List.of(
+            new ShipConfig(1, 3),
+            new ShipConfig(2, 2),
+            new ShipConfig(2, 1)
+    );
+
+    private static final List<ShipConfig> HEAVY = List.of(
+            new ShipConfig(1, 5),
+            new ShipConfig(2, 4),
+            new ShipConfig(2, 3),
+            new ShipConfig(3, 2),
+            new ShipConfig(4, 1)
+    );
+
+    private Fleets() {
+    }
+
+    static List<ShipConfig> of(String name) {
+        switch (name) {
+            case "standard":
+                return ShipsOperations.DEFAULT_SHIPS;
+            case "light":
+                return LIGHT;
+            case "heavy":
+                return HEAVY;
+            default:
+                throw new IllegalArgumentException("Unknown fleet " + name);
+        }
+    }
+
+    static Board placedBoard(int boardSize, List<ShipConfig> fleet, Random random) {
+        for (int attempt = 0; attempt < 1_000; attempt++) {
+            var board = new Board(boardSize);
+            if (place(board, fleet, random)) {
+                return board;
+            }
+        }
+        throw new IllegalStateException("Fleet does not fit a board of size " + boardSize);
+    }
+
+    private static boolean place(Board board, List<ShipConfig> fleet, Random random) {
+        for (ShipConfig config : fleet) {
+            for (int i = 0; i < config.getCount(); i++) {
+                int attempts = 0;
+                while (!board.placeShip(config.getSize(), random.nextInt(board.getSize()), random.nextInt(board.getSize()),
+                        random.nextBoolean() ? Alignment.HORIZONTAL : Alignment.VERTICAL)) {
+                    if (++attempts == 10_000) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+}
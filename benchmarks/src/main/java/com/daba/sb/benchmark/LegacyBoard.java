@@ -0,0 +1,115 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.board.Figure;
+import com.daba.sb.model.process.StrikeResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The Figure[][] + HashMap<Dot, Ship> board the game shipped with, kept as a baseline for comparison
+public class LegacyBoard {
+
+    private static final int[][] ADJACENCY = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private final int size;
+    private final Figure[][] figures;
+    private final Set<LegacyShip> fleet = new HashSet<>();
+    private final Map<Dot, LegacyShip> shipCache = new HashMap<>();
+
+    public LegacyBoard(int size) {
+        this.size = size;
+        figures = new Figure[size][size];
+        for (Figure[] row : figures) {
+            Arrays.fill(row, Figure.EMPTY);
+        }
+    }
+
+    public boolean placeShip(int shipSize, Dot dot, Alignment alignment) {
+        int x = dot.getX();
+        int y = dot.getY();
+        if (x < 0 || y < 0 || x > size - 1 - (shipSize - 1) * alignment.getXd() || y > size - 1 - (shipSize - 1) * alignment.getYd()) {
+            return false;
+        }
+        var ship = new LegacyShip(shipSize, dot, alignment);
+        for (Dot d : ship.dots) {
+            if (get(d) != Figure.EMPTY) {
+                return false;
+            }
+            if (adjacentCells(d).stream().anyMatch(a -> get(a) != Figure.EMPTY)) {
+                return false;
+            }
+        }
+        fleet.add(ship);
+        for (Dot d : ship.dots) {
+            shipCache.put(d, ship);
+            figures[d.getY()][d.getX()] = Figure.SHIP;
+        }
+        return true;
+    }
+
+    public StrikeResult strike(Dot dot) {
+        Figure current = get(dot);
+        if (current == Figure.MISS || current == Figure.DESTROYED) {
+            return StrikeResult.DO_AGAIN;
+        }
+        var ship = shipCache.get(dot);
+        if (ship == null) {
+            figures[dot.getY()][dot.getX()] = Figure.MISS;
+            return StrikeResult.MISS;
+        }
+        figures[dot.getY()][dot.getX()] = Figure.DESTROYED;
+        if (--ship.cellsLeft > 0) {
+            return StrikeResult.WOUND;
+        }
+        for (Dot d : ship.dots) {
+            adjacentCells(d).forEach(a -> {
+                if (get(a) == Figure.EMPTY) {
+                    figures[a.getY()][a.getX()] = Figure.MISS;
+                }
+            });
+        }
+        return StrikeResult.KILLED;
+    }
+
+    public boolean isGameOver() {
+        return fleet.stream().allMatch(ship -> ship.cellsLeft == 0);
+    }
+
+    public Figure get(Dot dot) {
+        return figures[dot.getY()][dot.getX()];
+    }
+
+    private Set<Dot> adjacentCells(Dot dot) {
+        Set<Dot> result = new HashSet<>();
+        for (int[] adj : ADJACENCY) {
+            var x = dot.getX() + adj[0];
+            var y = dot.getY() + adj[1];
+            if (x >= 0 && y >= 0 && x < size && y < size) {
+                result.add(Dot.of(x, y));
+            }
+        }
+        return result;
+    }
+
+    private static class LegacyShip {
+
+        private final List<Dot> dots = new ArrayList<>();
+        private int cellsLeft;
+
+        private LegacyShip(int size, Dot base, Alignment alignment) {
+            cellsLeft = size;
+            for (int i = 0; i < size; i++) {
+                dots.add(Dot.of(base.getX() + i * alignment.getXd(), base.getY() + i * alignment.getYd()));
+            }
+        }
+
+    }
+
+}
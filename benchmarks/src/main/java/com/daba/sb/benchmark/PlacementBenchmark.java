@@ -0,0 +1,51 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.process.ShipsOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlacementBenchmark {
+
+    @Param({"9", "12", "16"})
+    private int boardSize;
+
+    @Param({"light", "standard", "heavy"})
+    private String fleet;
+
+    private List<ShipConfig> shipConfigs;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        shipConfigs = Fleets.of(fleet);
+        random = new SplittableRandom(42);
+    }
+
+    // Backtracking placement; the result tells whether the fleet was placed
+    @Benchmark
+    public boolean placeRandomShips() {
+        return ShipsOperations.placeRandomly(new Board(boardSize), shipConfigs, random);
+    }
+
+}
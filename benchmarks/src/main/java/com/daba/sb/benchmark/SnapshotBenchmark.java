@@ -0,0 +1,94 @@
+package com.daba.sb.benchmark;
+
+import com.daba.sb.model.GameContext;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.process.GameStage;
+import com.daba.sb.snapshot.SnapshotCodec;
+import com.daba.sb.snapshot.SnapshotJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Encoded sizes of both formats are printed once per trial, next to the throughput of each direction
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"10", "30", "100"})
+    private int boardSize;
+
+    @Param({"standard"})
+    private String fleet;
+
+    private GameContext context;
+
+    private ByteBuffer buffer;
+
+    private ByteBuffer encoded;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        var first = Fleets.placedBoard(boardSize, Fleets.of(fleet), random);
+        var second = Fleets.placedBoard(boardSize, Fleets.of(fleet), random);
+        strikeHalf(first, random);
+        strikeHalf(second, random);
+        context = new GameContext();
+        context.setStage(GameStage.GAME);
+        context.setPlayer(new Player("First", first, true, null));
+        context.setOpponent(new Player("Second", second, false, null));
+        buffer = ByteBuffer.allocateDirect(SnapshotCodec.sizeOf(context));
+        encoded = SnapshotCodec.encode(context);
+        json = SnapshotJson.encode(context);
+        System.out.println("Snapshot of board size " + boardSize + ": binary " + encoded.remaining() + " bytes, JSON "
+                + json.length() + " chars");
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        SnapshotCodec.encode(context, buffer.clear());
+        return buffer;
+    }
+
+    @Benchmark
+    public GameContext decodeBinary() {
+        return SnapshotCodec.decode(encoded.duplicate());
+    }
+
+    @Benchmark
+    public String encodeJson() {
+        return SnapshotJson.encode(context);
+    }
+
+    @Benchmark
+    public GameContext decodeJson() {
+        return SnapshotJson.decode(json);
+    }
+
+    private static void strikeHalf(Board board, Random random) {
+        int cells = board.getSize() * board.getSize();
+        for (int i = 0; i < cells / 2 && !board.isGameOver(); i++) {
+            board.strike(random.nextInt(cells));
+        }
+    }
+
+}
@@ -1,14 +1,36 @@
 package com.daba.sb;
 
+import com.daba.sb.io.SessionClosedException;
 import com.daba.sb.process.Game;
+import com.daba.sb.server.GameServer;
 import lombok.extern.slf4j.Slf4j;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
 @Slf4j
 public class Application {
 
-    public static void main(String[] args) {
+    private static final String SERVER_FLAG = "--server";
+
+    // Started with --server [port] [selector loops] [bind address] it hosts games over TCP instead of playing on the
+    // console. Only local clients can connect unless an address is given, such as 0.0.0.0 for every interface
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && SERVER_FLAG.equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+            int loops = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            var host = args.length > 3 ? InetAddress.getByName(args[3]) : InetAddress.getLoopbackAddress();
+            var server = new GameServer(new InetSocketAddress(host, port), loops);
+            server.start();
+            server.awaitTermination();
+            return;
+        }
         log.info("Application is started");
-        new Game().play();
+        try {
+            new Game().play();
+        } catch (SessionClosedException e) {
+            log.info("Game is interrupted: {}", e.getMessage());
+        }
         log.trace("Application is finished");
     }
 
@@ -1,16 +1,20 @@
 package com.daba.sb;
 
 import com.daba.sb.model.Alignment;
+import com.daba.sb.io.LineInput;
+import com.daba.sb.io.LineOutput;
+import com.daba.sb.io.SessionClosedException;
 import com.daba.sb.model.board.Dot;
 import com.daba.sb.util.BoardUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.helpers.MessageFormatter;
 
+import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -23,31 +27,45 @@ public class Dialogue {
 
     private static final String GLOBAL_COMMAND_PREFIX = ":";
 
-    private static final Map<String, Supplier<Boolean>> YES_NO = Map.of(
+    public static final Map<String, Supplier<Boolean>> YES_NO = Map.of(
             "y", () -> true, "Y", () -> true, "yes", () -> true, "Yes", () -> true,
             "n", () -> false, "N", () -> false, "no", () -> false, "No", () -> false
     );
 
-    private static final Map<String, Supplier<Alignment>> ALIGNMENTS = Map.of(
+    public static final Map<String, Supplier<Alignment>> ALIGNMENTS = Map.of(
             "V", () -> Alignment.VERTICAL, "v", () -> Alignment.VERTICAL,
             "H", () -> Alignment.HORIZONTAL, "h", () -> Alignment.HORIZONTAL);
 
     private static Dialogue instance;
 
-    private final Scanner scanner;
+    // Null when answers are pushed in from outside
+    private final LineInput input;
 
     private final Map<String, Consumer<Dialogue>> GLOBAL_COMMANDS;
     private final Map<String, String> GLOBAL_COMMANDS_DESCRIPTIONS;
 
+    // Lines go to the log when there is no output of its own
+    private final LineOutput output;
+
     private String currentRequest;
 
+    // The console: standard input and the log
     public static Dialogue join() {
         if (instance == null) {
-            instance = new Dialogue(new Scanner(System.in), new HashMap<>(), new HashMap<>());
+            instance = new Dialogue(LineInput.of(new InputStreamReader(System.in)), new HashMap<>(), new HashMap<>(), null);
         }
         return instance;
     }
 
+    public static Dialogue of(LineInput input, LineOutput output) {
+        return new Dialogue(input, new HashMap<>(), new HashMap<>(), output);
+    }
+
+    // A dialogue whose answers are pushed in from outside, e.g. by a network session, one line at a time
+    public static Dialogue writingTo(LineOutput output) {
+        return new Dialogue(null, new HashMap<>(), new HashMap<>(), output);
+    }
+
     public void addGlobalCommand(String command, String description, Consumer<Dialogue> handle) {
         GLOBAL_COMMANDS.put(GLOBAL_COMMAND_PREFIX + command, handle);
         GLOBAL_COMMANDS_DESCRIPTIONS.put(GLOBAL_COMMAND_PREFIX + command, description);
@@ -74,7 +92,13 @@ public class Dialogue {
         }
     }
 
-    private boolean handleGlobalCommand(String attempt, String requestMessage) {
+    // Non-blocking counterpart of queryUntilSuccess: remembers and shows the request, the answer comes later
+    public void ask(String requestMessage) {
+        this.currentRequest = requestMessage;
+        say(requestMessage);
+    }
+
+    public boolean handleGlobalCommand(String attempt, String requestMessage) {
         if (attempt.startsWith(GLOBAL_COMMAND_PREFIX)) {
             var globalCommand = GLOBAL_COMMANDS.get(attempt);
             if (globalCommand == null) {
@@ -92,7 +116,7 @@ public class Dialogue {
     public Integer readNumber(String requestMessage) {
         return queryUntilSuccess(
                 requestMessage,
-                scanner::nextLine,
+                this::nextLine,
                 NumberUtils::isParsable,
                 Integer::parseInt,
                 "Entered value is not an integer. Please enter again");
@@ -101,7 +125,7 @@ public class Dialogue {
     public Integer readPositiveNumber(String requestMessage) {
         return queryUntilSuccess(
                 requestMessage,
-                scanner::nextLine,
+                this::nextLine,
                 (s) -> NumberUtils.isParsable(s) && Integer.parseInt(s) > 0,
                 Integer::parseInt,
                 "Entered value is not a positive integer. Please enter again");
@@ -110,7 +134,7 @@ public class Dialogue {
     public String readString(String requestMessage) {
         return queryUntilSuccess(
                 requestMessage,
-                scanner::nextLine,
+                this::nextLine,
                 StringUtils::isNotEmpty,
                 Function.identity(),
                 "Entered value is empty. Please enter again");
@@ -119,7 +143,7 @@ public class Dialogue {
     public Dot readDotFromScanner(String requestMessage, int boardSize) {
         return queryUntilSuccess(
                 requestMessage,
-                scanner::nextLine,
+                this::nextLine,
                 (raw) -> BoardUtils.isCorrectDot(raw, boardSize),
                 (raw) -> BoardUtils.createDot(raw, boardSize),
                 "Dot is incorrect for given board. Please enter again"
@@ -131,13 +155,17 @@ public class Dialogue {
             return null;
         }
         return queryUntilSuccess(
-                requestMessage + "\n Variants are: " + String.join(", ", mappers.keySet()),
-                scanner::nextLine,
+                withVariants(requestMessage, mappers),
+                this::nextLine,
                 mappers::containsKey,
                 (raw) -> mappers.get(raw).get(),
                 "Given variant is not in the list. Please enter again");
     }
 
+    public static String withVariants(String requestMessage, Map<String, ?> mappers) {
+        return requestMessage + "\n Variants are: " + String.join(", ", mappers.keySet());
+    }
+
     public boolean readYesNo(String requestMessage) {
         return readVariant(requestMessage, YES_NO);
     }
@@ -147,7 +175,22 @@ public class Dialogue {
     }
 
     public void say(String pattern, Object... args) {
-        log.info(pattern, args);
+        if (output == null) {
+            log.info(pattern, args);
+        } else {
+            output.writeLine(MessageFormatter.arrayFormat(pattern, args).getMessage());
+        }
+    }
+
+    private String nextLine() {
+        if (input == null) {
+            throw new IllegalStateException("This dialogue has no input, its answers are pushed in");
+        }
+        var line = input.readLine();
+        if (line == null) {
+            throw new SessionClosedException("Input is over");
+        }
+        return line;
     }
 
     public void reportGlobalCommands() {
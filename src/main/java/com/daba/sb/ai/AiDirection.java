@@ -3,7 +3,7 @@ package com.daba.sb.ai;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 @RequiredArgsConstructor
 public enum AiDirection {
@@ -14,8 +14,8 @@ public enum AiDirection {
     @Getter
     private final int delta;
 
-    public static AiDirection getRandom() {
-        return new Random().nextInt(2) % 2 == 0 ? UP_LEFT : DOWN_RIGHT;
+    public static AiDirection getRandom(RandomGenerator random) {
+        return random.nextBoolean() ? UP_LEFT : DOWN_RIGHT;
     }
 
     public AiDirection inverse() {
@@ -0,0 +1,572 @@
+package com.daba.sb.ai;
+
+import com.daba.sb.model.board.BoardGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finishes a game in the fewest shots on average once few enough cells can still hold a ship. Every fleet that
+ * agrees with the board is listed, all of them equally likely, and the search tries each useful shot against the
+ * miss, wound and kill it would bring, down to the last ship. A kill marks the halo just like the board does.
+ * <p>
+ * Positions are keyed by a Zobrist hash of the cells that matter and of the ships afloat, not of the whole board.
+ * Solved positions go to a bounded {@link TranspositionTable}, so a position reached again through shots in another
+ * order is solved once. The cells that matter change from move to move, and so do the keys, so a table is of use to
+ * one game's searches only: every game gets a solver of its own, and the table is only allocated once a search
+ * starts. A search is limited in work, counted in fleets looked at; one that runs past the limit gives up and leaves
+ * the shot to someone else, and what it did solve stays in the table for the next try.
+ */
+public final class EndgameSolver {
+
+    public static final String CELLS_PROPERTY = "sb.endgame.cells";
+    public static final int DEFAULT_CELLS = 12;
+
+    // About a megabyte, which holds what a search within the work limit stores
+    private static final int GAME_TABLE_ENTRIES = 1 << 16;
+    private static final long WORK_LIMIT = 5_000_000;
+    private static final int CONFIG_LIMIT = 1 << 14;
+    private static final long SEED = 0x5EED_E4D6_A3E5L;
+
+    private static final int UNKNOWN = 0;
+    private static final int MISS = 1;
+    private static final int HIT = 2;
+    private static final int SUNK = 3;
+
+    private final int maxCells;
+    private final long workLimit;
+    private final int tableEntries;
+    private volatile TranspositionTable table;
+    // Zobrist keys by board size: four per cell, one per state, then one per ship length
+    private final Map<Integer, long[]> keys = new ConcurrentHashMap<>();
+
+    public EndgameSolver(int maxCells, int tableEntries, long workLimit) {
+        if (maxCells < 1 || maxCells > Long.SIZE) {
+            throw new IllegalArgumentException("Endgame threshold must be between 1 and 64 cells");
+        }
+        this.maxCells = maxCells;
+        this.workLimit = workLimit;
+        this.tableEntries = tableEntries;
+    }
+
+    // Threshold from -Dsb.endgame.cells, for the moves of one player
+    public static EndgameSolver forGame() {
+        return new EndgameSolver(Integer.getInteger(CELLS_PROPERTY, DEFAULT_CELLS), GAME_TABLE_ENTRIES, WORK_LIMIT);
+    }
+
+    public int getMaxCells() {
+        return maxCells;
+    }
+
+    // 0 until the first search
+    public int getTableCapacity() {
+        var current = table;
+        return current == null ? 0 : current.capacity();
+    }
+
+    // The cell to shoot, or -1 when too many cells can still hold a ship or the search ran out of work
+    public int solve(FleetSampler sampler) {
+        var fleet = sampler.afloat();
+        if (fleet.length == 0) {
+            return -1;
+        }
+        var search = Search.of(this, sampler);
+        return search == null ? -1 : search.run();
+    }
+
+    private TranspositionTable table() {
+        var current = table;
+        if (current == null) {
+            synchronized (this) {
+                current = table;
+                if (current == null) {
+                    current = new TranspositionTable(tableEntries);
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private long[] keys(BoardGeometry geometry) {
+        return keys.computeIfAbsent(geometry.getSize(), size -> {
+            var random = new SplittableRandom(SEED ^ size);
+            var result = new long[geometry.getCellCount() * 4 + size + 1];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = random.nextLong();
+            }
+            return result;
+        });
+    }
+
+    // One solve: the cells that matter are numbered into the bits of a long, fleets and ships become masks over them
+    private static final class Search {
+
+        private final EndgameSolver solver;
+        private final long[] keys;
+        private final int lengthKeys;
+        // Board cell of every local bit
+        private final int[] cells;
+        // Local ships, and the fleets as lists of them
+        private final long[] shipMasks;
+        private final long[] haloMasks;
+        private final int[] shipLengths;
+        private final int[][] fleets;
+        private final long[] occupied;
+        private final long rootHits;
+
+        private long work;
+        private int bestLocal;
+
+        private Search(EndgameSolver solver, long[] keys, int lengthKeys, int[] cells, long[] shipMasks, long[] haloMasks,
+                       int[] shipLengths, int[][] fleets, long rootHits) {
+            this.solver = solver;
+            this.keys = keys;
+            this.lengthKeys = lengthKeys;
+            this.cells = cells;
+            this.shipMasks = shipMasks;
+            this.haloMasks = haloMasks;
+            this.shipLengths = shipLengths;
+            this.fleets = fleets;
+            this.rootHits = rootHits;
+            this.occupied = new long[fleets.length];
+            for (int f = 0; f < fleets.length; f++) {
+                for (int ship : fleets[f]) {
+                    occupied[f] |= shipMasks[ship];
+                }
+            }
+        }
+
+        // Null when the position is not an endgame yet
+        static Search of(EndgameSolver solver, FleetSampler sampler) {
+            var table = sampler.table();
+            var geometry = table.getGeometry();
+            var fleet = sampler.afloat();
+            // Cheap bound first: unknown cells any ship afloat could cover on its own
+            var open = new boolean[geometry.getCellCount()];
+            int openCount = 0;
+            for (int length : Arrays.stream(fleet).distinct().toArray()) {
+                for (int p : sampler.candidates(length)) {
+                    for (int cell : table.cells(p)) {
+                        if (!open[cell] && sampler.isUnknown(cell)) {
+                            open[cell] = true;
+                            openCount++;
+                        }
+                    }
+                }
+            }
+            var hits = sampler.getHits();
+            if (openCount > solver.maxCells || openCount + hits.length > Long.SIZE) {
+                return null;
+            }
+            var fleets = enumerate(sampler, hits);
+            if (fleets == null || fleets.isEmpty()) {
+                return null;
+            }
+
+            var local = new int[geometry.getCellCount()];
+            Arrays.fill(local, -1);
+            var cells = new int[Long.SIZE];
+            int n = 0;
+            for (int[] f : fleets) {
+                for (int p : f) {
+                    for (int cell : table.cells(p)) {
+                        if (local[cell] < 0) {
+                            local[cell] = n;
+                            cells[n++] = cell;
+                        }
+                    }
+                }
+            }
+            var shipIds = new int[table.size()];
+            Arrays.fill(shipIds, -1);
+            var masks = new ArrayList<long[]>();
+            var lengths = new ArrayList<Integer>();
+            var localFleets = new int[fleets.size()][];
+            for (int f = 0; f < fleets.size(); f++) {
+                var placements = fleets.get(f);
+                localFleets[f] = new int[placements.length];
+                for (int i = 0; i < placements.length; i++) {
+                    int p = placements[i];
+                    if (shipIds[p] < 0) {
+                        shipIds[p] = masks.size();
+                        masks.add(new long[]{mask(table.cells(p), local), halo(table.cells(p), geometry, local)});
+                        lengths.add(table.length(p));
+                    }
+                    localFleets[f][i] = shipIds[p];
+                }
+            }
+            var keys = solver.keys(geometry);
+            return new Search(solver, keys, geometry.getCellCount() * 4, Arrays.copyOf(cells, n),
+                    masks.stream().mapToLong(m -> m[0]).toArray(), masks.stream().mapToLong(m -> m[1]).toArray(),
+                    lengths.stream().mapToInt(Integer::intValue).toArray(), localFleets, mask(hits, local));
+        }
+
+        int run() {
+            long hit = 0;
+            long hash = 0;
+            long afloat = 0;
+            int unhit = 0;
+            for (int ship : fleets[0]) {
+                unhit += shipLengths[ship];
+                afloat += keys[lengthKeys + shipLengths[ship]];
+            }
+            for (int i = 0; i < cells.length; i++) {
+                boolean isHit = (rootHits & 1L << i) != 0;
+                hit |= isHit ? 1L << i : 0;
+                unhit -= isHit ? 1 : 0;
+                hash ^= key(i, isHit ? HIT : UNKNOWN);
+            }
+            var all = new int[fleets.length];
+            Arrays.setAll(all, f -> f);
+            double expected = expected(all, hit, 0, 0, unhit, hash, afloat, Double.POSITIVE_INFINITY);
+            return Double.isNaN(expected) ? -1 : cells[bestLocal];
+        }
+
+        // Expected shots to sink everything afloat if that is below the limit; otherwise a bound at or above the limit,
+        // which is all the caller needs to drop its shot. NaN once the work limit is passed. An exact answer leaves
+        // its shot in bestLocal. The key is the xor of the cell keys next to the sum of the keys of the ships afloat
+        private double expected(int[] fleetIds, long hit, long miss, long sunk, int unhit, long hash, long afloat,
+                                double limit) {
+            if (unhit == 0) {
+                return 0;
+            }
+            long key = hash ^ afloat;
+            int ships = shipsAfloat(fleets[fleetIds[0]], sunk);
+            double floor = floor(fleetIds.length, unhit, ships);
+            long stored = solver.table().probe(key);
+            if (stored != 0) {
+                double value = TranspositionTable.expected(stored);
+                if (TranspositionTable.isExact(stored)) {
+                    bestLocal = localOf(TranspositionTable.cell(stored));
+                    if (bestLocal >= 0) {
+                        return value;
+                    }
+                } else {
+                    floor = Math.max(floor, value);
+                }
+            }
+            if (floor >= limit) {
+                return floor;
+            }
+            long started = work;
+            work += fleetIds.length;
+            long unknown = (cells.length == Long.SIZE ? -1L : (1L << cells.length) - 1) & ~(hit | miss | sunk);
+            var coverage = new int[cells.length];
+            for (int f : fleetIds) {
+                for (long bits = occupied[f] & unknown; bits != 0; bits &= bits - 1) {
+                    coverage[Long.numberOfTrailingZeros(bits)]++;
+                }
+            }
+            // A cell every fleet covers has to be shot anyway; shooting it now costs nothing and can only tell more
+            var order = candidates(coverage, unknown, fleetIds.length);
+            double best = Double.POSITIVE_INFINITY;
+            int bestCell = -1;
+            // Lowest bound of the shots dropped against the limit
+            double dropped = Double.POSITIVE_INFINITY;
+            for (int i : order) {
+                double cut = Math.min(best, limit);
+                // Every shot after this one hitting is the best that can happen
+                double bound = 1 + unhit - (double) coverage[i] / fleetIds.length;
+                if (bound >= cut) {
+                    dropped = Math.min(dropped, bound);
+                    continue;
+                }
+                work += fleetIds.length;
+                if (work > solver.workLimit) {
+                    return Double.NaN;
+                }
+                var outcomes = outcomes(fleetIds, i, hit);
+                var floors = new double[outcomes.size()];
+                bound = 1;
+                for (int o = 0; o < floors.length; o++) {
+                    var outcome = outcomes.get(o);
+                    floors[o] = isMissOutcome(outcome, i) ? floor(outcome.length, unhit, ships)
+                            : floor(outcome.length, unhit - 1, isKill(outcome[0], i, hit) ? ships - 1 : ships);
+                    bound += floors[o] * outcome.length / fleetIds.length;
+                }
+                for (int o = 0; o < floors.length && bound < cut; o++) {
+                    var outcome = outcomes.get(o);
+                    double share = (double) outcome.length / fleetIds.length;
+                    double e = child(outcome, i, hit, miss, sunk, unhit, hash, afloat, floors[o] + (cut - bound) / share);
+                    if (Double.isNaN(e)) {
+                        return e;
+                    }
+                    bound += (e - floors[o]) * share;
+                }
+                if (bound < cut) {
+                    best = bound;
+                    bestCell = i;
+                    if (best - floor < 1e-9) {
+                        break;
+                    }
+                } else {
+                    dropped = Math.min(dropped, bound);
+                }
+            }
+            if (best < limit) {
+                solver.table().store(key, TranspositionTable.pack(best, cells[bestCell], true, work - started));
+                bestLocal = bestCell;
+                return best;
+            }
+            solver.table().store(key, TranspositionTable.pack(dropped, cells[order[0]], false, work - started));
+            return dropped;
+        }
+
+        private double child(int[] outcome, int i, long hit, long miss, long sunk, int unhit, long hash, long afloat,
+                             double limit) {
+            long bit = 1L << i;
+            if (isMissOutcome(outcome, i)) {
+                return expected(outcome, hit, miss | bit, sunk, unhit, hash ^ key(i, UNKNOWN) ^ key(i, MISS), afloat,
+                        limit);
+            }
+            int ship = shipAt(fleets[outcome[0]], bit);
+            long mask = shipMasks[ship];
+            if ((mask & ~(hit | bit)) != 0) {
+                return expected(outcome, hit | bit, miss, sunk, unhit - 1, hash ^ key(i, UNKNOWN) ^ key(i, HIT), afloat,
+                        limit);
+            }
+            // Sunk: its cells turn from hit to sunk and the unknown cells around it to misses
+            hash ^= key(i, UNKNOWN) ^ key(i, HIT);
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                int c = Long.numberOfTrailingZeros(bits);
+                hash ^= key(c, HIT) ^ key(c, SUNK);
+            }
+            long halo = haloMasks[ship] & ~(miss | hit | sunk);
+            for (long bits = halo; bits != 0; bits &= bits - 1) {
+                int c = Long.numberOfTrailingZeros(bits);
+                hash ^= key(c, UNKNOWN) ^ key(c, MISS);
+            }
+            return expected(outcome, (hit | bit) & ~mask, miss | halo, sunk | mask, unhit - 1, hash,
+                    afloat - keys[lengthKeys + shipLengths[ship]], limit);
+        }
+
+        // Fleets split by what the shot would show: a miss, a wound, or a kill of one particular ship
+        private List<int[]> outcomes(int[] fleetIds, int i, long hit) {
+            long bit = 1L << i;
+            int misses = 0;
+            int wounds = 0;
+            var kills = new long[fleetIds.length];
+            int killCount = 0;
+            for (int f : fleetIds) {
+                if ((occupied[f] & bit) == 0) {
+                    misses++;
+                    continue;
+                }
+                int ship = shipAt(fleets[f], bit);
+                if ((shipMasks[ship] & ~(hit | bit)) != 0) {
+                    wounds++;
+                } else {
+                    kills[killCount++] = (long) ship << 32 | f;
+                }
+            }
+            var missed = new int[misses];
+            var wounded = new int[wounds];
+            misses = 0;
+            wounds = 0;
+            for (int f : fleetIds) {
+                if ((occupied[f] & bit) == 0) {
+                    missed[misses++] = f;
+                } else if ((shipMasks[shipAt(fleets[f], bit)] & ~(hit | bit)) != 0) {
+                    wounded[wounds++] = f;
+                }
+            }
+            var result = new ArrayList<int[]>();
+            if (missed.length > 0) {
+                result.add(missed);
+            }
+            if (wounded.length > 0) {
+                result.add(wounded);
+            }
+            Arrays.sort(kills, 0, killCount);
+            for (int from = 0, to; from < killCount; from = to) {
+                for (to = from + 1; to < killCount && kills[to] >>> 32 == kills[from] >>> 32; to++) {
+                }
+                var killed = new int[to - from];
+                for (int k = from; k < to; k++) {
+                    killed[k - from] = (int) kills[k];
+                }
+                result.add(killed);
+            }
+            // The likeliest outcome first, it decides most of the bound
+            result.sort((a, b) -> b.length - a.length);
+            return result;
+        }
+
+        private boolean isMissOutcome(int[] outcome, int i) {
+            return (occupied[outcome[0]] & 1L << i) == 0;
+        }
+
+        private boolean isKill(int fleet, int i, long hit) {
+            return (shipMasks[shipAt(fleets[fleet], 1L << i)] & ~(hit | 1L << i)) == 0;
+        }
+
+        private int shipsAfloat(int[] fleet, long sunk) {
+            int count = 0;
+            for (int ship : fleet) {
+                count += (shipMasks[ship] & ~sunk) != 0 ? 1 : 0;
+            }
+            return count;
+        }
+
+        // Fewest shots on average any strategy can take. Every fleet ends the game down its own path of results,
+        // and a path with m misses is fixed by where the misses fall among the shots before the last one and by
+        // which hits sink a ship; so few fleets can finish with few misses, and filling the cheapest paths first
+        // gives the bound
+        private static double floor(int fleetCount, int unhit, int ships) {
+            if (unhit == 0) {
+                return 0;
+            }
+            double paths = 1;
+            for (int k = 1; k < ships; k++) {
+                paths = paths * (unhit - k) / k;
+            }
+            double left = fleetCount;
+            double misses = 0;
+            for (int m = 0; left > 0; m++) {
+                double taken = Math.min(left, paths);
+                misses += taken * m;
+                left -= taken;
+                paths = paths * (unhit + m) / (m + 1);
+            }
+            return unhit + misses / fleetCount;
+        }
+
+        // Shots worth trying, the likeliest hits first; just the one when a cell is certain to hit
+        private static int[] candidates(int[] coverage, long unknown, int fleetCount) {
+            var order = new int[Long.bitCount(unknown)];
+            int n = 0;
+            for (long bits = unknown; bits != 0; bits &= bits - 1) {
+                int i = Long.numberOfTrailingZeros(bits);
+                if (coverage[i] == fleetCount) {
+                    return new int[]{i};
+                }
+                if (coverage[i] > 0) {
+                    order[n++] = i;
+                }
+            }
+            var sorted = Arrays.stream(order, 0, n).boxed()
+                    .sorted((a, b) -> coverage[b] - coverage[a])
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            return sorted;
+        }
+
+        private int shipAt(int[] fleet, long bit) {
+            for (int ship : fleet) {
+                if ((shipMasks[ship] & bit) != 0) {
+                    return ship;
+                }
+            }
+            throw new IllegalStateException("Fleet does not cover the cell");
+        }
+
+        private long key(int i, int state) {
+            return keys[cells[i] * 4 + state];
+        }
+
+        private int localOf(int cell) {
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] == cell) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Every fleet of the ships afloat that covers all hits, sinks none of them and leaves no two ships touching;
+        // null past the fleet limit. Ships of one length are taken in placement order, so no fleet is listed twice
+        private static List<int[]> enumerate(FleetSampler sampler, int[] hits) {
+            var table = sampler.table();
+            var geometry = table.getGeometry();
+            var fleet = sampler.afloat();
+            var blocked = new int[geometry.getCellCount()];
+            var covered = new int[geometry.getCellCount()];
+            var chosen = new int[fleet.length];
+            var result = new ArrayList<int[]>();
+            return place(sampler, hits, fleet, 0, blocked, covered, chosen, result) ? result : null;
+        }
+
+        private static boolean place(FleetSampler sampler, int[] hits, int[] fleet, int ship, int[] blocked,
+                                     int[] covered, int[] chosen, List<int[]> result) {
+            if (ship == fleet.length) {
+                for (int hit : hits) {
+                    if (covered[hit] == 0) {
+                        return true;
+                    }
+                }
+                result.add(chosen.clone());
+                return result.size() <= CONFIG_LIMIT;
+            }
+            var table = sampler.table();
+            var geometry = table.getGeometry();
+            int from = ship > 0 && fleet[ship - 1] == fleet[ship] ? chosen[ship - 1] + 1 : 0;
+            for (int p : sampler.candidates(fleet[ship])) {
+                if (p < from || !fits(sampler, table.cells(p), blocked)) {
+                    continue;
+                }
+                chosen[ship] = p;
+                for (int cell : table.cells(p)) {
+                    covered[cell]++;
+                    blocked[cell]++;
+                    for (int neighbour : geometry.neighbours(cell)) {
+                        blocked[neighbour]++;
+                    }
+                }
+                boolean more = place(sampler, hits, fleet, ship + 1, blocked, covered, chosen, result);
+                for (int cell : table.cells(p)) {
+                    covered[cell]--;
+                    blocked[cell]--;
+                    for (int neighbour : geometry.neighbours(cell)) {
+                        blocked[neighbour]--;
+                    }
+                }
+                if (!more) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Free of other ships and their halos, and not all hits: such a ship would already be sunk
+        private static boolean fits(FleetSampler sampler, int[] placement, int[] blocked) {
+            boolean allHit = true;
+            for (int cell : placement) {
+                if (blocked[cell] > 0) {
+                    return false;
+                }
+                allHit &= sampler.isHit(cell);
+            }
+            return !allHit;
+        }
+
+        // Cells around a ship, the ones a kill marks as missed
+        private static long halo(int[] placement, BoardGeometry geometry, int[] local) {
+            long mask = 0;
+            for (int cell : placement) {
+                for (int neighbour : geometry.neighbours(cell)) {
+                    if (local[neighbour] >= 0) {
+                        mask |= 1L << local[neighbour];
+                    }
+                }
+            }
+            return mask & ~mask(placement, local);
+        }
+
+        private static long mask(int[] boardCells, int[] local) {
+            long mask = 0;
+            for (int cell : boardCells) {
+                if (local[cell] >= 0) {
+                    mask |= 1L << local[cell];
+                }
+            }
+            return mask;
+        }
+
+    }
+
+}
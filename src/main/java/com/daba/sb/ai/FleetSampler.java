@@ -0,0 +1,313 @@
+package com.daba.sb.ai;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.BoardGeometry;
+import com.daba.sb.model.board.Figure;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Draws whole fleets that agree with what a target board shows: no ship on a miss, every hit on a ship still afloat
+ * covered, sunk ships gone from the fleet, and no two ships touching. Only misses and destroyed cells are read,
+ * ships that are not hit stay hidden. The observation is taken once; workers then sample on their own scratch arrays,
+ * so any number of them can run side by side.
+ */
+public final class FleetSampler {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    private static final byte HIT = 2;
+    private static final byte SUNK = 3;
+
+    private final PlacementTable table;
+    private final BoardGeometry geometry;
+    private final byte[] cells;
+    private final int[] hits;
+    // Ships afloat, longest first, and how many of every length
+    private final int[] lengths;
+    private final int[] remaining;
+    private final boolean[] valid;
+    private final int[][] validByLength;
+
+    private FleetSampler(PlacementTable table, Board target, List<ShipConfig> shipConfigs) {
+        this.table = table;
+        this.geometry = table.getGeometry();
+        int cellCount = geometry.getCellCount();
+        cells = new byte[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            var figure = target.get(cell);
+            cells[cell] = figure == Figure.MISS ? MISS : figure == Figure.DESTROYED ? HIT : UNKNOWN;
+        }
+        int maxLength = shipConfigs.stream().mapToInt(ShipConfig::getSize).max().orElse(0);
+        remaining = new int[maxLength + 1];
+        shipConfigs.forEach(c -> remaining[c.getSize()] += c.getCount());
+        markSunk();
+        hits = collect(HIT);
+        lengths = fleet();
+
+        valid = new boolean[table.size()];
+        for (int p = 0; p < table.size(); p++) {
+            valid[p] = table.length(p) < remaining.length && remaining[table.length(p)] > 0 && fits(p);
+        }
+        // Ships never touch, so a hit right next to a placement has to be part of it
+        for (int hit : hits) {
+            for (int p : table.touching(hit)) {
+                valid[p] = false;
+            }
+        }
+        validByLength = new int[remaining.length][];
+        for (int length = 1; length < remaining.length; length++) {
+            int from = table.firstOfLength(length);
+            int to = table.firstOfLength(length + 1);
+            validByLength[length] = IntStream.range(from, to).filter(p -> valid[p]).toArray();
+        }
+    }
+
+    public static FleetSampler observe(PlacementTable table, Board target, List<ShipConfig> shipConfigs) {
+        if (table.getGeometry().getSize() != target.getSize()) {
+            throw new IllegalArgumentException("Placement table is for another board size");
+        }
+        return new FleetSampler(table, target, shipConfigs);
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public boolean isUnknown(int cell) {
+        return cells[cell] == UNKNOWN;
+    }
+
+    // Hits on ships that are still afloat
+    public int[] getHits() {
+        return hits.clone();
+    }
+
+    public Worker worker(SplittableRandom random) {
+        return new Worker(random);
+    }
+
+    PlacementTable table() {
+        return table;
+    }
+
+    // Lengths of the ships afloat, longest first
+    int[] afloat() {
+        return lengths;
+    }
+
+    // Placements of a ship afloat that agree with the board on their own, ignoring the rest of the fleet
+    int[] candidates(int length) {
+        return validByLength[length];
+    }
+
+    boolean isHit(int cell) {
+        return cells[cell] == HIT;
+    }
+
+    // A run of destroyed cells is a sunk ship once nothing around it is unknown: the board has marked its halo
+    private void markSunk() {
+        int size = geometry.getSize();
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != HIT) {
+                continue;
+            }
+            int x = cell % size;
+            int y = cell / size;
+            if (x > 0 && cells[cell - 1] == HIT || y > 0 && cells[cell - size] == HIT) {
+                // Not the first cell of its run; runs are handled from their top left cell
+                continue;
+            }
+            boolean horizontal = x + 1 < size && cells[cell + 1] == HIT;
+            int step = horizontal ? 1 : size;
+            int length = 0;
+            boolean closed = true;
+            for (int c = cell, cx = x, cy = y; cx < size && cy < size && cells[c] == HIT;
+                 c += step, cx += horizontal ? 1 : 0, cy += horizontal ? 0 : 1) {
+                length++;
+                for (int neighbour : geometry.neighbours(c)) {
+                    if (cells[neighbour] == UNKNOWN) {
+                        closed = false;
+                    }
+                }
+            }
+            if (!closed) {
+                continue;
+            }
+            for (int i = 0, c = cell; i < length; i++, c += step) {
+                cells[c] = SUNK;
+            }
+            if (length < remaining.length && remaining[length] > 0) {
+                remaining[length]--;
+            }
+        }
+    }
+
+    private boolean fits(int placement) {
+        for (int cell : table.cells(placement)) {
+            if (cells[cell] != UNKNOWN && cells[cell] != HIT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] collect(byte state) {
+        int count = 0;
+        for (byte c : cells) {
+            if (c == state) {
+                count++;
+            }
+        }
+        var result = new int[count];
+        for (int cell = 0, i = 0; cell < cells.length; cell++) {
+            if (cells[cell] == state) {
+                result[i++] = cell;
+            }
+        }
+        return result;
+    }
+
+    private int[] fleet() {
+        var result = new int[Arrays.stream(remaining).sum()];
+        int i = 0;
+        for (int length = remaining.length - 1; length > 0; length--) {
+            for (int n = 0; n < remaining[length]; n++) {
+                result[i++] = length;
+            }
+        }
+        return result;
+    }
+
+    // Samples on its own. A fleet is drawn ship by ship, so some fleets come up more often than others; each one is
+    // counted with the inverse of its draw probability, which makes the coverage an estimate over all fleets equally
+    public final class Worker {
+
+        private final SplittableRandom random;
+        // Weighted coverage of every cell
+        @Getter
+        private final double[] coverage = new double[cells.length];
+        @Getter
+        private long samples;
+        @Getter
+        private long attempts;
+
+        private final int[] occupied = new int[cells.length];
+        private final int[] blocked = new int[cells.length];
+        private final int[] left = new int[remaining.length];
+        private final int[] order = hits.clone();
+        private final int[] placed = new int[lengths.length];
+        private int placedCount;
+        private int stamp;
+
+        private Worker(SplittableRandom random) {
+            this.random = random;
+        }
+
+        public Worker sampleUntil(long deadlineNanos, long sampleLimit) {
+            while (samples < sampleLimit && System.nanoTime() - deadlineNanos < 0) {
+                attempts++;
+                double weight = sample();
+                if (weight > 0) {
+                    samples++;
+                    for (int i = 0; i < placedCount; i++) {
+                        for (int cell : table.cells(placed[i])) {
+                            if (cells[cell] == UNKNOWN) {
+                                coverage[cell] += weight;
+                            }
+                        }
+                    }
+                }
+            }
+            return this;
+        }
+
+        // Ships through the hits go first, the rest of the fleet after them; returns the weight of the drawn fleet,
+        // or 0 when the draw runs into a dead end
+        private double sample() {
+            stamp++;
+            placedCount = 0;
+            double weight = 1;
+            System.arraycopy(remaining, 0, left, 0, remaining.length);
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            for (int hit : order) {
+                if (occupied[hit] == stamp) {
+                    continue;
+                }
+                if (blocked[hit] == stamp) {
+                    return 0;
+                }
+                int chosen = -1;
+                long total = 0;
+                for (int p : table.covering(hit)) {
+                    if (!valid[p] || left[table.length(p)] == 0 || !isFree(p)) {
+                        continue;
+                    }
+                    if (random.nextLong(++total) == 0) {
+                        chosen = p;
+                    }
+                }
+                if (chosen < 0) {
+                    return 0;
+                }
+                weight *= total;
+                place(chosen);
+            }
+            for (int length = left.length - 1; length > 0; length--) {
+                // Ships of one length are drawn one after another, so every fleet comes up in all their orders
+                for (int k = 2; k <= left[length]; k++) {
+                    weight /= k;
+                }
+                var candidates = validByLength[length];
+                while (left[length] > 0) {
+                    int free = 0;
+                    int chosen = -1;
+                    for (int p : candidates) {
+                        if (isFree(p) && random.nextInt(++free) == 0) {
+                            chosen = p;
+                        }
+                    }
+                    if (chosen < 0) {
+                        return 0;
+                    }
+                    weight *= free;
+                    place(chosen);
+                }
+            }
+            return weight;
+        }
+
+        private boolean isFree(int placement) {
+            for (int cell : table.cells(placement)) {
+                if (blocked[cell] == stamp) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void place(int placement) {
+            left[table.length(placement)]--;
+            placed[placedCount++] = placement;
+            for (int cell : table.cells(placement)) {
+                occupied[cell] = stamp;
+                blocked[cell] = stamp;
+                for (int neighbour : geometry.neighbours(cell)) {
+                    blocked[neighbour] = stamp;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.daba.sb.ai;
+
+import lombok.Getter;
+
+/**
+ * Precomputed start of a game for one board size and fleet: the shots to open with while everything misses,
+ * and how likely every cell of the empty board is to hold a ship. Immutable.
+ */
+public final class Opening {
+
+    private static final double HEAT_SCALE = Character.MAX_VALUE;
+
+    @Getter
+    private final int boardSize;
+    @Getter
+    private final String fleetKey;
+    private final int[] shots;
+    // Relative to the hottest cell, in 1/65535ths
+    private final char[] heat;
+
+    Opening(int boardSize, String fleetKey, int[] shots, char[] heat) {
+        if (heat.length != boardSize * boardSize) {
+            throw new IllegalArgumentException("Heatmap does not match a board of size " + boardSize);
+        }
+        this.boardSize = boardSize;
+        this.fleetKey = fleetKey;
+        this.shots = shots.clone();
+        this.heat = heat.clone();
+    }
+
+    static Opening of(int boardSize, String fleetKey, int[] shots, double[] coverage) {
+        double max = 0;
+        for (double c : coverage) {
+            max = Math.max(max, c);
+        }
+        var heat = new char[coverage.length];
+        for (int cell = 0; cell < coverage.length; cell++) {
+            heat[cell] = max == 0 ? 0 : (char) Math.round(coverage[cell] / max * HEAT_SCALE);
+        }
+        return new Opening(boardSize, fleetKey, shots, heat);
+    }
+
+    public int getShotCount() {
+        return shots.length;
+    }
+
+    // Cell of the n-th shot, as long as all the shots before it missed
+    public int getShot(int n) {
+        return shots[n];
+    }
+
+    // From 0 for cells no ship can cover to 1 for the likeliest
+    public double getHeat(int cell) {
+        return heat[cell] / HEAT_SCALE;
+    }
+
+    int[] shots() {
+        return shots;
+    }
+
+    char[] heat() {
+        return heat;
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.daba.sb.ai;
+
+import com.daba.sb.model.ShipConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Openings by board size and fleet, read on first use from the book shipped with the game and, when the
+ * {@value #BOOK_FILE_PROPERTY} system property names one, from a generated file whose entries take precedence.
+ * The loaded book never changes. Generate one with {@link OpeningBookGenerator}.
+ * <pre>
+ * file   magic, entry count (short), entries
+ * entry  fleet key (modified UTF-8), board size (short), shot count (short), shot cells (char each),
+ *        heat of every cell (char each)
+ * </pre>
+ */
+@Slf4j
+public final class OpeningBook {
+
+    public static final String BOOK_FILE_PROPERTY = "sb.openings";
+
+    static final String BOOK_RESOURCE = "openings.bin";
+
+    private static final int MAGIC = 0x53424f31;
+
+    private OpeningBook() {
+    }
+
+    public static Optional<Opening> find(int boardSize, List<ShipConfig> shipConfigs) {
+        return Optional.ofNullable(Loaded.OPENINGS.get(key(boardSize, ShipConfig.fleetKey(shipConfigs))));
+    }
+
+    public static void write(Collection<Opening> openings, Path file) {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(openings.size());
+            for (Opening opening : openings) {
+                out.writeUTF(opening.getFleetKey());
+                out.writeShort(opening.getBoardSize());
+                out.writeShort(opening.getShotCount());
+                for (int shot : opening.shots()) {
+                    out.writeChar(shot);
+                }
+                for (char heat : opening.heat()) {
+                    out.writeChar(heat);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Opening book " + file + " cannot be written", e);
+        }
+    }
+
+    static List<Opening> read(InputStream stream) throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an opening book");
+        }
+        int count = in.readUnsignedShort();
+        var openings = new Opening[count];
+        for (int i = 0; i < count; i++) {
+            var fleetKey = in.readUTF();
+            int boardSize = in.readUnsignedShort();
+            var shots = new int[in.readUnsignedShort()];
+            for (int n = 0; n < shots.length; n++) {
+                shots[n] = in.readChar();
+            }
+            var heat = new char[boardSize * boardSize];
+            for (int cell = 0; cell < heat.length; cell++) {
+                heat[cell] = in.readChar();
+            }
+            openings[i] = new Opening(boardSize, fleetKey, shots, heat);
+        }
+        return List.of(openings);
+    }
+
+    private static String key(int boardSize, String fleetKey) {
+        return boardSize + ";" + fleetKey;
+    }
+
+    // Loaded by the first lookup, not at startup of games that never ask
+    private static final class Loaded {
+
+        private static final Map<String, Opening> OPENINGS = load();
+
+        private static Map<String, Opening> load() {
+            var openings = new HashMap<String, Opening>();
+            try (var stream = OpeningBook.class.getResourceAsStream(BOOK_RESOURCE)) {
+                if (stream != null) {
+                    read(stream).forEach(o -> openings.put(key(o.getBoardSize(), o.getFleetKey()), o));
+                }
+            } catch (IOException e) {
+                log.warn("Shipped opening book cannot be read", e);
+            }
+            var file = System.getProperty(BOOK_FILE_PROPERTY);
+            if (file != null && !file.isBlank()) {
+                try (var stream = Files.newInputStream(Path.of(file))) {
+                    read(stream).forEach(o -> openings.put(key(o.getBoardSize(), o.getFleetKey()), o));
+                } catch (IOException e) {
+                    log.warn("Opening book {} cannot be read", file, e);
+                }
+            }
+            return Map.copyOf(openings);
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.daba.sb.ai;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.process.Feasibility;
+import com.daba.sb.process.FleetFeasibility;
+import com.daba.sb.process.ShipsOperations;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds an opening book offline. For every board size the fleet fits, fleets are sampled on the empty board
+ * for the heatmap, then the line is played out: the most covered cell is shot, assumed missed, and the fleets
+ * are sampled again. Seeded, so the same arguments give the same book as long as no shot runs out of time,
+ * which happens on boards where the fleet barely fits.
+ * <p>
+ * Run with: file [min size] [max size] [shots] [samples per shot] [seconds per shot]; the standard fleet is used.
+ */
+@Slf4j
+public final class OpeningBookGenerator {
+
+    private static final long SEED = 0x5eab;
+
+    private OpeningBookGenerator() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            log.error("Usage: OpeningBookGenerator file [min size] [max size] [shots] [samples per shot] [seconds per shot]");
+            return;
+        }
+        int minSize = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int maxSize = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int shots = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        long samples = args.length > 4 ? Long.parseLong(args[4]) : 50_000;
+        var timePerShot = Duration.ofSeconds(args.length > 5 ? Long.parseLong(args[5]) : 5);
+        var openings = new ArrayList<Opening>();
+        for (int size = minSize; size <= maxSize; size++) {
+            if (FleetFeasibility.check(size, ShipsOperations.DEFAULT_SHIPS) != Feasibility.FEASIBLE) {
+                log.info("Fleet does not fit a board of size {}, skipped", size);
+                continue;
+            }
+            openings.add(generate(size, ShipsOperations.DEFAULT_SHIPS, shots, samples, timePerShot));
+            log.info("Opening for board size {} is ready", size);
+        }
+        OpeningBook.write(openings, Path.of(args[0]));
+    }
+
+    public static Opening generate(int boardSize, List<ShipConfig> shipConfigs, int shots, long samples, Duration timePerShot) {
+        var random = new SplittableRandom(SEED ^ boardSize);
+        var board = new Board(boardSize);
+        var table = PlacementTable.of(board.getGeometry(), shipConfigs.stream().mapToInt(ShipConfig::getSize).distinct().toArray());
+        double[] heat = null;
+        var line = new int[shots];
+        int played = 0;
+        for (; played < shots; played++) {
+            var sampler = FleetSampler.observe(table, board, shipConfigs);
+            var coverage = sampler.worker(random.split()).sampleUntil(System.nanoTime() + timePerShot.toNanos(), samples).getCoverage();
+            if (heat == null) {
+                heat = coverage.clone();
+            }
+            int best = -1;
+            for (int cell = 0; cell < coverage.length; cell++) {
+                if (sampler.isUnknown(cell) && coverage[cell] > 0 && (best < 0 || coverage[cell] > coverage[best])) {
+                    best = cell;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            line[played] = best;
+            board.strike(best);
+        }
+        return Opening.of(boardSize, ShipConfig.fleetKey(shipConfigs), Arrays.copyOf(line, played), heat);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.daba.sb.ai;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.board.BoardGeometry;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Every way to put a ship of each given length on an empty board, indexed by the cells each placement covers
+// and by the cells that would touch it
+public final class PlacementTable {
+
+    @Getter
+    private final BoardGeometry geometry;
+
+    private final int[] lengths;
+    private final int[][] cells;
+    private final int[] byLengthStart;
+
+    private final int[][] covering;
+    private final int[][] touching;
+
+    private PlacementTable(BoardGeometry geometry, int[] lengths) {
+        this.geometry = geometry;
+        int size = geometry.getSize();
+        List<int[]> placements = new ArrayList<>();
+        List<Integer> placementLengths = new ArrayList<>();
+        int maxLength = Arrays.stream(lengths).max().orElse(0);
+        boolean[] wanted = new boolean[maxLength + 1];
+        Arrays.stream(lengths).filter(l -> l > 0).forEach(l -> wanted[l] = true);
+        byLengthStart = new int[maxLength + 2];
+        for (int length = 1; length <= maxLength; length++) {
+            byLengthStart[length] = placements.size();
+            if (!wanted[length] || length > size) {
+                continue;
+            }
+            // A single cell looks the same either way
+            var alignments = length == 1 ? new Alignment[]{Alignment.HORIZONTAL} : Alignment.values();
+            for (Alignment alignment : alignments) {
+                for (int y = 0; y + (length - 1) * alignment.getYd() < size; y++) {
+                    for (int x = 0; x + (length - 1) * alignment.getXd() < size; x++) {
+                        int[] placement = new int[length];
+                        for (int i = 0; i < length; i++) {
+                            placement[i] = geometry.cell(x + i * alignment.getXd(), y + i * alignment.getYd());
+                        }
+                        placements.add(placement);
+                        placementLengths.add(length);
+                    }
+                }
+            }
+        }
+        byLengthStart[maxLength + 1] = placements.size();
+        this.cells = placements.toArray(new int[0][]);
+        this.lengths = placementLengths.stream().mapToInt(Integer::intValue).toArray();
+        boolean[] seen = new boolean[geometry.getCellCount()];
+        int[][] rings = new int[cells.length][];
+        for (int p = 0; p < cells.length; p++) {
+            rings[p] = ring(cells[p], seen);
+        }
+        this.covering = invert(cells, geometry.getCellCount());
+        this.touching = invert(rings, geometry.getCellCount());
+    }
+
+    public static PlacementTable of(BoardGeometry geometry, int[] lengths) {
+        return new PlacementTable(geometry, lengths);
+    }
+
+    public int size() {
+        return cells.length;
+    }
+
+    public int length(int placement) {
+        return lengths[placement];
+    }
+
+    public int[] cells(int placement) {
+        return cells[placement];
+    }
+
+    // Placements of one length occupy the id range [firstOfLength(l), firstOfLength(l + 1))
+    public int firstOfLength(int length) {
+        return length >= byLengthStart.length ? cells.length : byLengthStart[length];
+    }
+
+    public int[] covering(int cell) {
+        return covering[cell];
+    }
+
+    // Placements that do not cover the cell but would touch a ship standing there
+    public int[] touching(int cell) {
+        return touching[cell];
+    }
+
+    // Turns per-placement cell lists into per-cell placement lists
+    private static int[][] invert(int[][] placementCells, int cellCount) {
+        int[] counts = new int[cellCount];
+        for (int[] list : placementCells) {
+            for (int cell : list) {
+                counts[cell]++;
+            }
+        }
+        int[][] result = new int[cellCount][];
+        for (int cell = 0; cell < cellCount; cell++) {
+            result[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int p = 0; p < placementCells.length; p++) {
+            for (int cell : placementCells[p]) {
+                result[cell][counts[cell]++] = p;
+            }
+        }
+        return result;
+    }
+
+    // Cells around the placement that a ship standing there would touch; seen is scratch space, left clear
+    private int[] ring(int[] placement, boolean[] seen) {
+        for (int cell : placement) {
+            seen[cell] = true;
+        }
+        int[] result = new int[2 * placement.length + 6];
+        int count = 0;
+        for (int cell : placement) {
+            for (int neighbour : geometry.neighbours(cell)) {
+                if (!seen[neighbour]) {
+                    seen[neighbour] = true;
+                    result[count++] = neighbour;
+                }
+            }
+        }
+        for (int cell : placement) {
+            seen[cell] = false;
+        }
+        for (int i = 0; i < count; i++) {
+            seen[result[i]] = false;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+}
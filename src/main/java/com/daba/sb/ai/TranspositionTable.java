@@ -0,0 +1,83 @@
+package com.daba.sb.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Solved endgame positions by hash, of a fixed size however many are stored. Every bucket has two entries: one keeps
+// the position that took the most work to solve, the other always takes the newest, so cheap positions churn
+// through it without pushing out expensive ones. An entry is either exact or only a lower bound, from a search that
+// stopped as soon as it knew enough; a bound never replaces the exact value of its position. Entries are written
+// without locks as the key xor-ed with the data next to the data; one torn by a racing thread no longer matches its
+// key and reads as a miss.
+final class TranspositionTable {
+
+    private static final int WORK_BITS = 7;
+    private static final int CELL_BITS = 24;
+    private static final int MAX_WORK = (1 << WORK_BITS) - 1;
+    private static final int EXACT = 1 << WORK_BITS;
+    private static final int CELL_SHIFT = WORK_BITS + 1;
+
+    // Two entries of two longs each per bucket
+    private final AtomicLongArray slots;
+    private final int bucketMask;
+
+    TranspositionTable(int entries) {
+        int buckets = Integer.highestOneBit(Math.max(1, entries / 2));
+        this.slots = new AtomicLongArray(buckets * 4);
+        this.bucketMask = buckets - 1;
+    }
+
+    // The data stored for the key, 0 when there is none
+    long probe(long key) {
+        int base = bucket(key);
+        for (int entry = base; entry < base + 4; entry += 2) {
+            long data = slots.getOpaque(entry + 1);
+            if (data != 0 && (slots.getOpaque(entry) ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    void store(long key, long data) {
+        int base = bucket(key);
+        long known = probe(key);
+        if (known != 0 && isExact(known) && !isExact(data)) {
+            return;
+        }
+        long kept = slots.getOpaque(base + 1);
+        int entry = kept == 0 || (slots.getOpaque(base) ^ kept) == key || work(data) >= work(kept) ? base : base + 2;
+        slots.setOpaque(entry, key ^ data);
+        slots.setOpaque(entry + 1, data);
+    }
+
+    int capacity() {
+        return slots.length() / 2;
+    }
+
+    // Expected shots as a float, the cell to shoot, whether that is exact and the bit length of the work it took
+    static long pack(double expected, int cell, boolean exact, long effort) {
+        int work = Math.min(MAX_WORK, Long.SIZE - Long.numberOfLeadingZeros(effort));
+        return (long) Float.floatToIntBits((float) expected) << 32 | (long) cell << CELL_SHIFT | (exact ? EXACT : 0) | work;
+    }
+
+    static double expected(long data) {
+        return Float.intBitsToFloat((int) (data >>> 32));
+    }
+
+    static int cell(long data) {
+        return (int) (data >>> CELL_SHIFT) & (1 << CELL_BITS) - 1;
+    }
+
+    static boolean isExact(long data) {
+        return (data & EXACT) != 0;
+    }
+
+    private static int work(long data) {
+        return (int) data & MAX_WORK;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) * 4;
+    }
+
+}
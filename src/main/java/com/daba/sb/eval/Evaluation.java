@@ -0,0 +1,301 @@
+package com.daba.sb.eval;
+
+import com.daba.sb.model.Player;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.process.PlacementOutcome;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.FleetPlacer;
+import com.daba.sb.process.GameEngine;
+import com.daba.sb.process.ShipsOperations;
+import com.daba.sb.util.Seeds;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Tells whether one strategy is better than another, and by how much. Every game number has its own generator,
+ * derived from the master seed, which places two fleets and makes every random choice of the strategies, so any game
+ * can be played again on its own. Every strategy plays the very same fleets, so strategies are compared seed by seed
+ * rather than game by game, which takes far fewer games for the same certainty.
+ * For every seed
+ * <ul>
+ * <li>each strategy sinks the first fleet on its own, counting the shots it needs, and</li>
+ * <li>each pair of strategies plays two games, once from either side, so both shoot at both fleets and both start
+ * once.</li>
+ * </ul>
+ * Games are played in looks, the first of {@value #FIRST_LOOK} games and each later one doubling the total, up to
+ * the maximum. After every look all comparisons are tested, and the evaluation stops once all of them are
+ * significant. Alpha is split evenly over every look and every comparison, so looking early does not make a
+ * difference appear where there is none, and all reported intervals hold at once.
+ * <p>
+ * Run with: report.json strategies [board size] [max games] [seed] [alpha], strategies being a comma separated list
+ * such as ai,probability; the standard fleet is used.
+ */
+@Slf4j
+public final class Evaluation {
+
+    private static final int FIRST_LOOK = 100;
+    private static final int DEFAULT_BOARD_SIZE = 10;
+
+    // A strategy that keeps striking longer than this without sinking the fleet is stuck, as in the game engine
+    private static final int STRIKES_PER_CELL_LIMIT = 4;
+
+    private final int boardSize;
+    private final List<ShipConfig> shipConfigs;
+    private final List<Strategy> strategies;
+    private final long seed;
+    private final int maxGames;
+    private final double alpha;
+    private final GameEngine engine;
+    private final ForkJoinPool pool;
+
+    public Evaluation(int boardSize, List<ShipConfig> shipConfigs, List<Strategy> strategies, long seed, int maxGames,
+                      double alpha) {
+        this(boardSize, shipConfigs, strategies, seed, maxGames, alpha, ForkJoinPool.commonPool());
+    }
+
+    public Evaluation(int boardSize, List<ShipConfig> shipConfigs, List<Strategy> strategies, long seed, int maxGames,
+                      double alpha, ForkJoinPool pool) {
+        if (strategies.isEmpty() || strategies.stream().distinct().count() != strategies.size()) {
+            throw new IllegalArgumentException("Evaluation needs distinct strategies");
+        }
+        if (maxGames < 1) {
+            throw new IllegalArgumentException("Evaluation needs at least one game");
+        }
+        if (!(alpha > 0 && alpha < 1)) {
+            throw new IllegalArgumentException("Alpha must lie strictly between 0 and 1");
+        }
+        this.engine = new GameEngine(boardSize, shipConfigs);
+        this.boardSize = boardSize;
+        this.shipConfigs = shipConfigs;
+        this.strategies = List.copyOf(strategies);
+        this.seed = seed;
+        this.maxGames = maxGames;
+        this.alpha = alpha;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            log.error("Usage: Evaluation report.json strategies [board size] [max games] [seed] [alpha]");
+            return;
+        }
+        var strategies = Arrays.stream(args[1].split(",")).map(String::trim).map(Strategy::byName).collect(Collectors.toList());
+        int boardSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BOARD_SIZE;
+        int maxGames = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        double alpha = args.length > 5 ? Double.parseDouble(args[5]) : 0.05;
+        var report = new Evaluation(boardSize, ShipsOperations.DEFAULT_SHIPS, strategies, seed, maxGames, alpha).run();
+        report.write(Path.of(args[0]));
+        report.getShots().forEach(s -> log.info("{}: {} shots on average, median {}", s.getStrategy(), s.getMean(), s.getP50()));
+        report.getDuels().forEach(d -> log.info("{} beats {} in {} of games, [{}, {}]{}", d.getFirst(), d.getSecond(),
+                d.getFirstWinRate(), d.getLow(), d.getHigh(), d.isSignificant() ? "" : ", not significant"));
+    }
+
+    public EvaluationReport run() {
+        var looks = looks();
+        int pairs = strategies.size() * (strategies.size() - 1) / 2;
+        // Shots and duels are tested for every pair
+        double testAlpha = alpha / looks.length / Math.max(1, 2 * pairs);
+        double z = Normal.quantile(1 - testAlpha / 2);
+        var shots = new int[strategies.size()][maxGames];
+        var wins = new byte[pairs][maxGames];
+        int played = 0;
+        int look = 0;
+        boolean significant = false;
+        while (look < looks.length && !significant) {
+            int from = played;
+            int to = looks[look++];
+            pool.submit(() -> IntStream.range(from, to).parallel().forEach(i -> play(i, shots, wins))).join();
+            played = to;
+            significant = pairs > 0 && allSignificant(shots, wins, played, testAlpha);
+            log.info("Look {} of {}: {} games played{}", look, looks.length, played, significant ? ", all differences significant" : "");
+        }
+        return report(shots, wins, played, look, significant && played < maxGames, testAlpha, z);
+    }
+
+    private int[] looks() {
+        var totals = new ArrayList<Integer>();
+        for (long total = Math.min(FIRST_LOOK, maxGames); ; total *= 2) {
+            totals.add((int) Math.min(total, maxGames));
+            if (total >= maxGames) {
+                return totals.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    // Generators are taken from the game's one in a fixed order, whichever thread plays it
+    private void play(int game, int[][] shots, byte[][] wins) {
+        var random = Seeds.forGame(seed, game);
+        long[] fleetSeeds = {random.nextLong(), random.nextLong()};
+        for (int s = 0; s < strategies.size(); s++) {
+            shots[s][game] = shotsToSink(strategies.get(s), fleet(fleetSeeds[0]), random.split());
+        }
+        int pair = 0;
+        for (int a = 0; a < strategies.size(); a++) {
+            for (int b = a + 1; b < strategies.size(); b++) {
+                int won = duel(strategies.get(a), strategies.get(b), fleetSeeds, random) ? 1 : 0;
+                won += duel(strategies.get(b), strategies.get(a), fleetSeeds, random) ? 0 : 1;
+                wins[pair++][game] = (byte) won;
+            }
+        }
+    }
+
+    // The starting strategy owns the first fleet; true when it wins
+    private boolean duel(Strategy starting, Strategy other, long[] fleetSeeds, SplittableRandom random) {
+        var first = new Player(starting.getName(), fleet(fleetSeeds[0]), false, starting.create(shipConfigs, random.split()));
+        var second = new Player(other.getName(), fleet(fleetSeeds[1]), false, other.create(shipConfigs, random.split()));
+        return engine.play(first, second).isFirstWon();
+    }
+
+    private int shotsToSink(Strategy strategy, Board target, SplittableRandom random) {
+        var move = strategy.create(shipConfigs, random);
+        int limit = boardSize * boardSize * STRIKES_PER_CELL_LIMIT;
+        int shots = 0;
+        for (int strikes = 0; !target.isGameOver(); strikes++) {
+            if (strikes == limit) {
+                throw new IllegalStateException("Fleet is not sunk after " + limit + " strikes; " + strategy.getName() + " seems stuck");
+            }
+            var moveResult = move.make(target);
+            if (!moveResult.isLegalMove()) {
+                throw new IllegalStateException(strategy.getName() + " made an illegal move");
+            }
+            var result = target.strike(moveResult.getDot());
+            move.getNotified(result);
+            if (result != StrikeResult.DO_AGAIN) {
+                shots++;
+            }
+        }
+        return shots;
+    }
+
+    // The same seed places the same fleet, however many times a game needs it
+    private Board fleet(long fleetSeed) {
+        var board = new Board(boardSize);
+        if (FleetPlacer.place(board, shipConfigs, new SplittableRandom(fleetSeed)) != PlacementOutcome.PLACED) {
+            throw new IllegalStateException("Ships cannot be placed on a board of size " + boardSize);
+        }
+        return board;
+    }
+
+    private boolean allSignificant(int[][] shots, byte[][] wins, int games, double testAlpha) {
+        int pair = 0;
+        for (int a = 0; a < strategies.size(); a++) {
+            for (int b = a + 1; b < strategies.size(); b++) {
+                var difference = Sample.of(games, shotDifference(shots, a, b));
+                var score = Sample.of(games, duelScore(wins, pair++));
+                if (difference.pValue(0) >= testAlpha || score.pValue(0.5) >= testAlpha) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private EvaluationReport report(int[][] shots, byte[][] wins, int games, int looks, boolean stoppedEarly,
+                                    double testAlpha, double z) {
+        var shotReports = new ArrayList<EvaluationReport.Shots>();
+        for (int s = 0; s < strategies.size(); s++) {
+            var sorted = Arrays.copyOf(shots[s], games);
+            Arrays.sort(sorted);
+            var sample = Sample.of(games, i -> sorted[i]);
+            shotReports.add(new EvaluationReport.Shots(strategies.get(s).getName(), round(sample.mean), round(sample.sd),
+                    sorted[0], percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99), sorted[games - 1]));
+        }
+        var comparisons = new ArrayList<EvaluationReport.ShotComparison>();
+        var duels = new ArrayList<EvaluationReport.Duel>();
+        int pair = 0;
+        for (int a = 0; a < strategies.size(); a++) {
+            for (int b = a + 1; b < strategies.size(); b++) {
+                String first = strategies.get(a).getName();
+                String second = strategies.get(b).getName();
+                var difference = Sample.of(games, shotDifference(shots, a, b));
+                double p = difference.pValue(0);
+                comparisons.add(new EvaluationReport.ShotComparison(first, second, round(difference.mean),
+                        round(difference.mean - z * difference.se()), round(difference.mean + z * difference.se()),
+                        round(p), p < testAlpha));
+                var score = Sample.of(games, duelScore(wins, pair));
+                int firstWins = 0;
+                for (int i = 0; i < games; i++) {
+                    firstWins += wins[pair][i];
+                }
+                p = score.pValue(0.5);
+                duels.add(new EvaluationReport.Duel(first, second, 2 * games, firstWins, 2 * games - firstWins,
+                        round(score.mean), round(Math.max(0, score.mean - z * score.se())),
+                        round(Math.min(1, score.mean + z * score.se())), round(p), p < testAlpha));
+                pair++;
+            }
+        }
+        return new EvaluationReport(boardSize, ShipConfig.fleetKey(shipConfigs), seed, alpha, round(1 - testAlpha),
+                maxGames, games, looks, stoppedEarly, shotReports, comparisons, duels);
+    }
+
+    private static IntToDoubleFunction shotDifference(int[][] shots, int a, int b) {
+        return i -> shots[a][i] - shots[b][i];
+    }
+
+    // Share of the seed's two games the first strategy of the pair won
+    private static IntToDoubleFunction duelScore(byte[][] wins, int pair) {
+        return i -> wins[pair][i] / 2.0;
+    }
+
+    // Nearest rank
+    private static int percentile(int[] sorted, double q) {
+        return sorted[Math.max(0, (int) Math.ceil(q * sorted.length) - 1)];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+
+    // Mean and standard deviation of one value per seed; means are taken as normal, there are hundreds of seeds
+    private static final class Sample {
+
+        private final int n;
+        private final double mean;
+        private final double sd;
+
+        private Sample(int n, double mean, double sd) {
+            this.n = n;
+            this.mean = mean;
+            this.sd = sd;
+        }
+
+        static Sample of(int n, IntToDoubleFunction value) {
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += value.applyAsDouble(i);
+            }
+            double mean = sum / n;
+            double squares = 0;
+            for (int i = 0; i < n; i++) {
+                double d = value.applyAsDouble(i) - mean;
+                squares += d * d;
+            }
+            return new Sample(n, mean, n > 1 ? Math.sqrt(squares / (n - 1)) : 0);
+        }
+
+        double se() {
+            return sd / Math.sqrt(n);
+        }
+
+        // Two-sided, against a true mean of expected
+        double pValue(double expected) {
+            if (se() == 0) {
+                return mean == expected ? 1 : 0;
+            }
+            return Normal.twoSidedP((mean - expected) / se());
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.daba.sb.eval;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of an {@link Evaluation}, written as indented JSON in a fixed field order with rounded numbers, so that
+ * reports from two commits can be put side by side with a plain diff. Nothing in it depends on the time or the
+ * machine it was made on.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationReport {
+
+    private static final ObjectWriter WRITER = new ObjectMapper().writerWithDefaultPrettyPrinter().forType(EvaluationReport.class);
+
+    private int boardSize;
+    private String fleet;
+    private long seed;
+    private double alpha;
+    // Level of every interval below; alpha is split over all looks and comparisons
+    private double confidence;
+    private int maxGames;
+    private int games;
+    private int looks;
+    private boolean stoppedEarly;
+
+    private List<Shots> shots;
+    private List<ShotComparison> shotComparisons;
+    private List<Duel> duels;
+
+    public String toJson() {
+        try {
+            return WRITER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Report cannot be written as JSON", e);
+        }
+    }
+
+    public void write(Path file) {
+        try {
+            Files.writeString(file, toJson() + System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Report cannot be written to " + file, e);
+        }
+    }
+
+    // Shots one strategy needed to sink the first fleet of every seed
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shots {
+        private String strategy;
+        private double mean;
+        private double sd;
+        private int min;
+        private int p50;
+        private int p90;
+        private int p99;
+        private int max;
+    }
+
+    // First minus second, seed by seed
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShotComparison {
+        private String first;
+        private String second;
+        private double meanDifference;
+        private double low;
+        private double high;
+        // Two-sided p-value
+        private double p;
+        private boolean significant;
+    }
+
+    // Two games per seed, one from each side
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Duel {
+        private String first;
+        private String second;
+        private int games;
+        private int firstWins;
+        private int secondWins;
+        private double firstWinRate;
+        private double low;
+        private double high;
+        // Two-sided p-value
+        private double p;
+        private boolean significant;
+    }
+
+}
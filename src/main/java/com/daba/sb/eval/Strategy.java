@@ -0,0 +1,47 @@
+package com.daba.sb.eval;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.process.move.Move;
+import com.daba.sb.process.move.impl.AiMove;
+import com.daba.sb.process.move.impl.MonteCarloMove;
+import com.daba.sb.process.move.impl.ProbabilityMove;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+// Strategies an evaluation can play, by the names used on the command line and in reports
+@RequiredArgsConstructor
+public enum Strategy {
+
+    AI("ai", AiMove::headless),
+    AI_PARITY("ai-parity", (shipConfigs, random) -> new AiMove(null, shipConfigs, random, true)),
+    PROBABILITY("probability", ProbabilityMove::new),
+    // A fixed number of samples instead of a time budget, so results do not depend on the machine or its load
+    MONTE_CARLO("montecarlo", (shipConfigs, random) -> new MonteCarloMove(null, shipConfigs, Duration.ofMinutes(1),
+            ForkJoinPool.commonPool(), 2_000, random));
+
+    @Getter
+    private final String name;
+    private final BiFunction<List<ShipConfig>, SplittableRandom, Move> factory;
+
+    // Every random choice of the move comes from the given generator
+    public Move create(List<ShipConfig> shipConfigs, SplittableRandom random) {
+        return factory.apply(shipConfigs, random);
+    }
+
+    public static Strategy byName(String name) {
+        return Arrays.stream(values())
+                .filter(s -> s.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown strategy " + name + ", expected one of "
+                        + Arrays.stream(values()).map(Strategy::getName).collect(Collectors.joining(", "))));
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.daba.sb.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.concurrent.BlockingQueue;
+
+// Where a dialogue takes its answers from; blocks until a line comes and gives null once the input is over
+@FunctionalInterface
+public interface LineInput {
+
+    // Put into a queue to tell its reader that no more lines follow
+    String END_OF_INPUT = new String("\u0000end of input");
+
+    String readLine();
+
+    // Console, socket streams and scripted files alike
+    static LineInput of(Reader reader) {
+        var buffered = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        return () -> {
+            try {
+                return buffered.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    static LineInput of(BlockingQueue<String> queue) {
+        return () -> {
+            try {
+                var line = queue.take();
+                // Identity on purpose: only the marker itself ends the input, not an equal line
+                return line == END_OF_INPUT ? null : line;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.daba.sb.io;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Queue;
+
+// Where a dialogue writes its lines to
+@FunctionalInterface
+public interface LineOutput {
+
+    void writeLine(String line);
+
+    static LineOutput of(Writer writer) {
+        var printer = writer instanceof PrintWriter ? (PrintWriter) writer : new PrintWriter(writer);
+        return line -> {
+            printer.println(line);
+            printer.flush();
+        };
+    }
+
+    static LineOutput of(Queue<String> queue) {
+        return queue::add;
+    }
+
+}
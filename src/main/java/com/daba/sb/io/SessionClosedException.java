@@ -0,0 +1,10 @@
+package com.daba.sb.io;
+
+// Unwinds a blocking game once its player has quit or its input is over
+public class SessionClosedException extends RuntimeException {
+
+    public SessionClosedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.daba.sb.journal;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.process.StrikeResult;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A game as read back from a journal. Placements and strikes are kept in parallel primitive arrays
+ * in the order they were written; boards are numbered 0 for the first player and 1 for the second.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class GameRecord {
+
+    private static final StrikeResult[] RESULTS = StrikeResult.values();
+
+    private final int boardSize;
+    private final String firstName;
+    private final String secondName;
+    private final boolean firstHuman;
+    private final boolean secondHuman;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] shipBoards;
+    @Getter(AccessLevel.NONE)
+    private final int[] shipSizes;
+    @Getter(AccessLevel.NONE)
+    private final int[] shipCells;
+    @Getter(AccessLevel.NONE)
+    private final boolean[] shipVertical;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] strikeBoards;
+    @Getter(AccessLevel.NONE)
+    private final int[] strikeCells;
+    @Getter(AccessLevel.NONE)
+    private final byte[] strikeResults;
+
+    // -1 while the game is unfinished, e.g. when the journal was cut short by a crash
+    private final int winner;
+
+    public int getShipCount() {
+        return shipSizes.length;
+    }
+
+    public int getShipBoard(int ship) {
+        return shipBoards[ship];
+    }
+
+    public int getShipSize(int ship) {
+        return shipSizes[ship];
+    }
+
+    public int getShipCell(int ship) {
+        return shipCells[ship];
+    }
+
+    public Alignment getShipAlignment(int ship) {
+        return shipVertical[ship] ? Alignment.VERTICAL : Alignment.HORIZONTAL;
+    }
+
+    public int getStrikeCount() {
+        return strikeCells.length;
+    }
+
+    // The board that was struck, so the striking player is the other one
+    public int getStrikeBoard(int strike) {
+        return strikeBoards[strike];
+    }
+
+    public int getStrikeCell(int strike) {
+        return strikeCells[strike];
+    }
+
+    public StrikeResult getStrikeResult(int strike) {
+        return RESULTS[strikeResults[strike]];
+    }
+
+    public boolean isFinished() {
+        return winner >= 0;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.daba.sb.journal;
+
+/**
+ * Layout of a journal file: a magic number, then events. An event is a tag byte followed by unsigned LEB128 varints.
+ * The tag keeps the event type in its low three bits and event flags above them; a zero tag ends the events,
+ * which is also what the unwritten, zero-filled tail of a mapped file reads as.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x53424a31;
+
+    static final int HEADER_BYTES = Integer.BYTES;
+
+    static final int TYPE_MASK = 0b111;
+
+    // Game start: flags are human first (bit 3) and human second (bit 4); then board size and both names
+    static final int GAME_STARTED = 1;
+
+    // Ship placed: flags are board (bit 3) and vertical (bit 4); then ship size and base cell
+    static final int SHIP_PLACED = 2;
+
+    // Strike: flags are struck board (bit 3) and result ordinal (bits 4-5); then cell
+    static final int STRUCK = 3;
+
+    // Game over: flag is the winner (bit 3)
+    static final int FINISHED = 4;
+
+    static final int BOARD_FLAG = 1 << 3;
+
+    static final int SECOND_FLAG = 1 << 4;
+
+    static final int RESULT_SHIFT = 4;
+
+    static final int MAX_NAME_BYTES = 1024;
+
+    private JournalFormat() {
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.daba.sb.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.daba.sb.journal.JournalFormat.BOARD_FLAG;
+import static com.daba.sb.journal.JournalFormat.FINISHED;
+import static com.daba.sb.journal.JournalFormat.GAME_STARTED;
+import static com.daba.sb.journal.JournalFormat.HEADER_BYTES;
+import static com.daba.sb.journal.JournalFormat.MAGIC;
+import static com.daba.sb.journal.JournalFormat.MAX_NAME_BYTES;
+import static com.daba.sb.journal.JournalFormat.RESULT_SHIFT;
+import static com.daba.sb.journal.JournalFormat.SECOND_FLAG;
+import static com.daba.sb.journal.JournalFormat.SHIP_PLACED;
+import static com.daba.sb.journal.JournalFormat.STRUCK;
+import static com.daba.sb.journal.JournalFormat.TYPE_MASK;
+
+// Reads a journal back; events after a zero tag or a torn last event are ignored, as a crashed writer leaves them
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    public static GameRecord read(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal " + file + " cannot be read", e);
+        }
+    }
+
+    static GameRecord read(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a game journal");
+        }
+        var events = new Events();
+        while (buffer.hasRemaining()) {
+            int mark = buffer.position();
+            try {
+                if (!events.read(buffer)) {
+                    break;
+                }
+            } catch (BufferUnderflowException e) {
+                buffer.position(mark);
+                break;
+            }
+        }
+        if (!events.started) {
+            throw new IllegalArgumentException("Journal has no game");
+        }
+        return events.toRecord();
+    }
+
+    private static class Events {
+
+        private boolean started;
+        private int boardSize;
+        private String firstName;
+        private String secondName;
+        private boolean firstHuman;
+        private boolean secondHuman;
+        private int winner = -1;
+
+        private int ships;
+        private byte[] shipBoards = new byte[16];
+        private int[] shipSizes = new int[16];
+        private int[] shipCells = new int[16];
+        private boolean[] shipVertical = new boolean[16];
+
+        private int strikes;
+        private byte[] strikeBoards = new byte[128];
+        private int[] strikeCells = new int[128];
+        private byte[] strikeResults = new byte[128];
+
+        // Returns false at the end of the events
+        private boolean read(ByteBuffer buffer) {
+            int tag = buffer.get() & 0xff;
+            int board = (tag & BOARD_FLAG) == 0 ? 0 : 1;
+            switch (tag & TYPE_MASK) {
+                case GAME_STARTED:
+                    if (started) {
+                        throw new IllegalArgumentException("Journal records more than one game");
+                    }
+                    int size = getVarint(buffer);
+                    var first = getName(buffer);
+                    var second = getName(buffer);
+                    started = true;
+                    boardSize = size;
+                    firstName = first;
+                    secondName = second;
+                    firstHuman = (tag & BOARD_FLAG) != 0;
+                    secondHuman = (tag & SECOND_FLAG) != 0;
+                    return true;
+                case SHIP_PLACED:
+                    int shipSize = getVarint(buffer);
+                    int base = getVarint(buffer);
+                    addShip(board, shipSize, base, (tag & SECOND_FLAG) != 0);
+                    return true;
+                case STRUCK:
+                    int cell = getVarint(buffer);
+                    addStrike(board, cell, tag >>> RESULT_SHIFT & 0b11);
+                    return true;
+                case FINISHED:
+                    winner = board;
+                    return true;
+                case 0:
+                    return false;
+                default:
+                    throw new IllegalArgumentException("Unknown journal event " + tag);
+            }
+        }
+
+        private void addShip(int board, int size, int base, boolean vertical) {
+            if (ships == shipSizes.length) {
+                shipBoards = Arrays.copyOf(shipBoards, ships * 2);
+                shipSizes = Arrays.copyOf(shipSizes, ships * 2);
+                shipCells = Arrays.copyOf(shipCells, ships * 2);
+                shipVertical = Arrays.copyOf(shipVertical, ships * 2);
+            }
+            shipBoards[ships] = (byte) board;
+            shipSizes[ships] = size;
+            shipCells[ships] = base;
+            shipVertical[ships++] = vertical;
+        }
+
+        private void addStrike(int board, int cell, int result) {
+            if (strikes == strikeCells.length) {
+                strikeBoards = Arrays.copyOf(strikeBoards, strikes * 2);
+                strikeCells = Arrays.copyOf(strikeCells, strikes * 2);
+                strikeResults = Arrays.copyOf(strikeResults, strikes * 2);
+            }
+            strikeBoards[strikes] = (byte) board;
+            strikeCells[strikes] = cell;
+            strikeResults[strikes++] = (byte) result;
+        }
+
+        private GameRecord toRecord() {
+            return new GameRecord(boardSize, firstName, secondName, firstHuman, secondHuman,
+                    Arrays.copyOf(shipBoards, ships), Arrays.copyOf(shipSizes, ships), Arrays.copyOf(shipCells, ships),
+                    Arrays.copyOf(shipVertical, ships),
+                    Arrays.copyOf(strikeBoards, strikes), Arrays.copyOf(strikeCells, strikes), Arrays.copyOf(strikeResults, strikes),
+                    winner);
+        }
+
+        private static int getVarint(ByteBuffer buffer) {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                int b = buffer.get();
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed journal number");
+        }
+
+        private static String getName(ByteBuffer buffer) {
+            int length = getVarint(buffer);
+            if (length > MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("Malformed journal name");
+            }
+            var bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.daba.sb.journal;
+
+import com.daba.sb.model.GameContext;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.process.GameStage;
+import com.daba.sb.model.process.StrikeResult;
+import lombok.Getter;
+
+/**
+ * Rebuilds the state of a recorded game after any number of strikes. Strikes are applied to real boards,
+ * and each result is checked against the recorded one, so a journal that does not match the board rules is reported
+ * at the strike where they diverge. Replaying forward continues from the current state; going back starts over.
+ * The rebuilt players have no moves, they carry the names and boards only.
+ */
+public class JournalReplayer {
+
+    @Getter
+    private final GameRecord record;
+    @Getter
+    private Player first;
+    @Getter
+    private Player second;
+    private final GameContext context = new GameContext();
+
+    // Strikes applied so far
+    @Getter
+    private int moveNumber;
+
+    public JournalReplayer(GameRecord record) {
+        this.record = record;
+        reset();
+    }
+
+    public static JournalReplayer of(GameRecord record) {
+        return new JournalReplayer(record);
+    }
+
+    // The context right after the given number of strikes, with the player to strike next as the current one
+    public GameContext replay(int moveNumber) {
+        if (moveNumber < 0 || moveNumber > record.getStrikeCount()) {
+            throw new IllegalArgumentException("Journal has no move " + moveNumber + ", it records " + record.getStrikeCount());
+        }
+        if (moveNumber < this.moveNumber) {
+            reset();
+        }
+        while (this.moveNumber < moveNumber) {
+            strike(this.moveNumber++);
+        }
+        return context;
+    }
+
+    public GameContext replayAll() {
+        return replay(record.getStrikeCount());
+    }
+
+    private void strike(int index) {
+        var board = record.getStrikeBoard(index) == 0 ? first.getBoard() : second.getBoard();
+        int cell = record.getStrikeCell(index);
+        var expected = record.getStrikeResult(index);
+        var actual = board.strike(cell);
+        if (actual != expected) {
+            throw new IllegalStateException("Move " + (index + 1) + " at " + Dot.of(cell % board.getSize(), cell / board.getSize())
+                    + " was recorded as " + expected + " but replays as " + actual);
+        }
+        var striker = board == first.getBoard() ? second : first;
+        var target = striker == first ? second : first;
+        boolean passes = actual == StrikeResult.MISS;
+        context.setPlayer(passes ? target : striker);
+        context.setOpponent(passes ? striker : target);
+    }
+
+    private void reset() {
+        int size = record.getBoardSize();
+        var boards = new Board[]{new Board(size), new Board(size)};
+        for (int ship = 0; ship < record.getShipCount(); ship++) {
+            var board = boards[record.getShipBoard(ship)];
+            int cell = record.getShipCell(ship);
+            if (!board.placeShip(record.getShipSize(ship), cell % size, cell / size, record.getShipAlignment(ship))) {
+                throw new IllegalStateException("Ship " + (ship + 1) + " of the journal cannot be placed");
+            }
+        }
+        first = new Player(record.getFirstName(), boards[0], record.isFirstHuman(), null);
+        second = new Player(record.getSecondName(), boards[1], record.isSecondHuman(), null);
+        context.setPlayer(first);
+        context.setOpponent(second);
+        context.setStage(GameStage.GAME);
+        moveNumber = 0;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.daba.sb.journal;
+
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.StepListener;
+
+// Writes the game to a journal as the step machine plays it
+public class JournalStepListener implements StepListener {
+
+    private final MoveJournal journal;
+    private final Player first;
+    private final Player second;
+
+    public JournalStepListener(MoveJournal journal, Player first, Player second) {
+        this.journal = journal;
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void gameStarted(Player first) {
+        journal.gameStarted(this.first.getBoard().getSize(), this.first, second);
+    }
+
+    @Override
+    public void struck(Player player, Dot dot, StrikeResult result) {
+        var opponent = player == first ? second : first;
+        var board = opponent.getBoard();
+        journal.struck(player == first ? 1 : 0, dot.toCell(board.getSize()), result);
+        if (result.isChangingMove() && board.isGameOver()) {
+            journal.finished(player == first ? 0 : 1);
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.daba.sb.journal;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Ship;
+import com.daba.sb.model.process.StrikeResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.daba.sb.journal.JournalFormat.BOARD_FLAG;
+import static com.daba.sb.journal.JournalFormat.FINISHED;
+import static com.daba.sb.journal.JournalFormat.GAME_STARTED;
+import static com.daba.sb.journal.JournalFormat.MAGIC;
+import static com.daba.sb.journal.JournalFormat.MAX_NAME_BYTES;
+import static com.daba.sb.journal.JournalFormat.RESULT_SHIFT;
+import static com.daba.sb.journal.JournalFormat.SECOND_FLAG;
+import static com.daba.sb.journal.JournalFormat.SHIP_PLACED;
+import static com.daba.sb.journal.JournalFormat.STRUCK;
+
+/**
+ * Append-only record of one game: both fleets and every strike, a couple of bytes per strike.
+ * Events are written into a memory-mapped window of the file, which is moved on when it fills up,
+ * so appending is a few buffer puts; the operating system writes the pages back.
+ * Boards are numbered 0 for the first player and 1 for the second.
+ */
+public class MoveJournal implements Closeable {
+
+    private static final int WINDOW_BYTES = 64 * 1024;
+
+    // Enough for any event but the game start, which checks for itself
+    private static final int MAX_EVENT_BYTES = 16;
+
+    private final FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean started;
+
+    private MoveJournal(FileChannel channel) throws IOException {
+        this.channel = channel;
+        map(0);
+        window.putInt(MAGIC);
+    }
+
+    public static MoveJournal create(Path file) {
+        try {
+            return new MoveJournal(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal " + file + " cannot be created", e);
+        }
+    }
+
+    public void gameStarted(int boardSize, Player first, Player second) {
+        if (started) {
+            throw new IllegalStateException("A journal records a single game");
+        }
+        started = true;
+        var firstName = name(first);
+        var secondName = name(second);
+        ensure(MAX_EVENT_BYTES + firstName.length + secondName.length);
+        window.put((byte) (GAME_STARTED | (first.isHuman() ? BOARD_FLAG : 0) | (second.isHuman() ? SECOND_FLAG : 0)));
+        putVarint(boardSize);
+        putVarint(firstName.length);
+        window.put(firstName);
+        putVarint(secondName.length);
+        window.put(secondName);
+        for (Ship ship : first.getBoard().getFleet()) {
+            shipPlaced(0, ship, boardSize);
+        }
+        for (Ship ship : second.getBoard().getFleet()) {
+            shipPlaced(1, ship, boardSize);
+        }
+    }
+
+    public void struck(int board, int cell, StrikeResult result) {
+        ensure(MAX_EVENT_BYTES);
+        window.put((byte) (STRUCK | (board == 0 ? 0 : BOARD_FLAG) | result.ordinal() << RESULT_SHIFT));
+        putVarint(cell);
+    }
+
+    public void finished(int winner) {
+        ensure(MAX_EVENT_BYTES);
+        window.put((byte) (FINISHED | (winner == 0 ? 0 : BOARD_FLAG)));
+    }
+
+    // Makes everything appended so far durable, not just visible to other processes
+    public void flush() {
+        window.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            window.force();
+            // Trims the zero tail of the last window, the end of the file then ends the events too
+            channel.truncate(windowStart + window.position());
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal cannot be closed", e);
+        }
+    }
+
+    private void shipPlaced(int board, Ship ship, int boardSize) {
+        ensure(MAX_EVENT_BYTES);
+        window.put((byte) (SHIP_PLACED | (board == 0 ? 0 : BOARD_FLAG) | (ship.getAlignment() == Alignment.VERTICAL ? SECOND_FLAG : 0)));
+        putVarint(ship.getSize());
+        putVarint(ship.getBase().toCell(boardSize));
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7f) != 0) {
+            window.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        window.put((byte) value);
+    }
+
+    private void ensure(int bytes) {
+        if (window.remaining() < bytes) {
+            try {
+                map(windowStart + window.position());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Journal cannot grow", e);
+            }
+        }
+    }
+
+    private void map(long start) throws IOException {
+        if (window != null) {
+            window.force();
+        }
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_WRITE, start, WINDOW_BYTES);
+    }
+
+    private static byte[] name(Player player) {
+        var bytes = player.getName().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Player name is too long for the journal");
+        }
+        return bytes;
+    }
+
+}
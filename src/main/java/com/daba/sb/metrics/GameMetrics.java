@@ -0,0 +1,140 @@
+package com.daba.sb.metrics;
+
+import com.daba.sb.model.process.PlacementOutcome;
+import com.daba.sb.model.process.StrikeResult;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Strike and placement counters; LongAdders stripe under contention, so recording stays cheap from many game threads
+public class GameMetrics implements GameMetricsMBean {
+
+    // The rate is sampled over windows of this length, however often it is read
+    static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final LongAdder[] strikes = new LongAdder[StrikeResult.values().length];
+    private final LongAdder placements = new LongAdder();
+    private final LongAdder placementAttempts = new LongAdder();
+    private final LongAdder placementNodes = new LongAdder();
+    private final LongAdder placementFailures = new LongAdder();
+
+    // Start of the current window; a read after it is over closes it, and the closed window gives the rate
+    private long windowStrikes;
+    private long windowNanos = System.nanoTime();
+    private double rate;
+
+    GameMetrics() {
+        for (int i = 0; i < strikes.length; i++) {
+            strikes[i] = new LongAdder();
+        }
+    }
+
+    public void struck(StrikeResult result) {
+        strikes[result.ordinal()].increment();
+    }
+
+    public void placed(PlacementOutcome outcome, int attempts, long nodes) {
+        placements.increment();
+        placementAttempts.add(attempts);
+        placementNodes.add(nodes);
+        if (outcome != PlacementOutcome.PLACED) {
+            placementFailures.increment();
+        }
+    }
+
+    @Override
+    public long getStrikes() {
+        long total = 0;
+        for (LongAdder count : strikes) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getHits() {
+        return strikes[StrikeResult.WOUND.ordinal()].sum() + getKills();
+    }
+
+    @Override
+    public long getKills() {
+        return strikes[StrikeResult.KILLED.ordinal()].sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return strikes[StrikeResult.MISS.ordinal()].sum();
+    }
+
+    @Override
+    public long getRepeatedStrikes() {
+        return strikes[StrikeResult.DO_AGAIN.ordinal()].sum();
+    }
+
+    @Override
+    public synchronized double getStrikesPerSecond() {
+        long now = System.nanoTime();
+        if (now - windowNanos >= RATE_WINDOW_NANOS) {
+            long total = getStrikes();
+            rate = (total - windowStrikes) * 1e9 / (now - windowNanos);
+            windowStrikes = total;
+            windowNanos = now;
+        }
+        return rate;
+    }
+
+    @Override
+    public double getHitRatio() {
+        return share(getHits());
+    }
+
+    @Override
+    public double getKillRatio() {
+        return share(getKills());
+    }
+
+    @Override
+    public double getMissRatio() {
+        return share(getMisses());
+    }
+
+    @Override
+    public long getPlacements() {
+        return placements.sum();
+    }
+
+    @Override
+    public long getPlacementAttempts() {
+        return placementAttempts.sum();
+    }
+
+    @Override
+    public long getPlacementNodes() {
+        return placementNodes.sum();
+    }
+
+    @Override
+    public long getPlacementFailures() {
+        return placementFailures.sum();
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (LongAdder count : strikes) {
+            count.reset();
+        }
+        placements.reset();
+        placementAttempts.reset();
+        placementNodes.reset();
+        placementFailures.reset();
+        windowStrikes = 0;
+        windowNanos = System.nanoTime();
+        rate = 0;
+    }
+
+    private double share(long count) {
+        long landed = getHits() + getMisses();
+        return landed == 0 ? 0 : (double) count / landed;
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.daba.sb.metrics;
+
+public interface GameMetricsMBean {
+
+    long getStrikes();
+
+    long getHits();
+
+    long getKills();
+
+    long getMisses();
+
+    long getRepeatedStrikes();
+
+    // Over the latest finished sampling window of at least five seconds, however many consoles read it
+    double getStrikesPerSecond();
+
+    // Shares of all strikes that landed; repeated strikes are not counted
+    double getHitRatio();
+
+    double getKillRatio();
+
+    double getMissRatio();
+
+    long getPlacements();
+
+    long getPlacementAttempts();
+
+    long getPlacementNodes();
+
+    long getPlacementFailures();
+
+    void reset();
+
+}
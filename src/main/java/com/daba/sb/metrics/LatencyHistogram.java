@@ -0,0 +1,133 @@
+package com.daba.sb.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with one bucket per power of two nanoseconds. Every thread records into one of a few stripes
+ * picked by its id, so recording is a couple of uncontended atomic adds and allocates nothing.
+ * Percentiles are read as the upper bound of their bucket, so they overstate by less than a factor of two.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    static final int BUCKETS = Long.SIZE;
+
+    private static final int SUM = BUCKETS;
+
+    private static final int MAX = BUCKETS + 1;
+
+    // Buckets plus sum and max, rounded up to whole cache lines so stripes do not share one
+    private static final int STRIDE = BUCKETS + 8;
+
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * STRIDE);
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        int base = stripe() * STRIDE;
+        cells.getAndIncrement(base + bucket(value));
+        cells.getAndAdd(base + SUM, value);
+        if (value > cells.get(base + MAX)) {
+            cells.accumulateAndGet(base + MAX, value, Math::max);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (long bucket : getBuckets()) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long count = getCount();
+        return count == 0 ? 0 : micros(sum(SUM)) / count;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        long max = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            max = Math.max(max, cells.get(stripe * STRIDE + MAX));
+        }
+        return micros(max);
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentileMicros(0.5);
+    }
+
+    @Override
+    public double getP90Micros() {
+        return percentileMicros(0.9);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentileMicros(0.99);
+    }
+
+    @Override
+    public long[] getBuckets() {
+        var buckets = new long[BUCKETS];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                buckets[bucket] += cells.get(stripe * STRIDE + bucket);
+            }
+        }
+        return buckets;
+    }
+
+    // Not atomic with recording; what is recorded meanwhile may be partly kept
+    @Override
+    public void reset() {
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, 0);
+        }
+    }
+
+    double percentileMicros(double fraction) {
+        var buckets = getBuckets();
+        long count = 0;
+        for (long bucket : buckets) {
+            count += bucket;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                return Math.min(micros(bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    private long sum(int slot) {
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            sum += cells.get(stripe * STRIDE + slot);
+        }
+        return sum;
+    }
+
+    private static int bucket(long nanos) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+    }
+
+    private static int stripe() {
+        return (int) (Thread.currentThread().getId() * 0x9e3779b97f4a7c15L >>> 32) & STRIPES - 1;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+
+}
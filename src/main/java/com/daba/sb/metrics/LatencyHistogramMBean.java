@@ -0,0 +1,22 @@
+package com.daba.sb.metrics;
+
+public interface LatencyHistogramMBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getMaxMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    // Counts of bucket i, which holds latencies from 2^(i-1) up to 2^i nanoseconds
+    long[] getBuckets();
+
+    void reset();
+
+}
@@ -0,0 +1,48 @@
+package com.daba.sb.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Process-wide metrics of the game and AI hot paths, registered as MBeans under {@value #DOMAIN}.
+ * Recording never locks or allocates, so it is always on, simulations included.
+ */
+@Slf4j
+public final class Metrics {
+
+    public static final String DOMAIN = "com.daba.sb";
+
+    public static final GameMetrics GAME = register(new GameMetrics(), "type=Game");
+
+    public static final LatencyHistogram RENDER = register(new LatencyHistogram(), "type=Latency,name=render");
+
+    public static final LatencyHistogram PLACEMENT = register(new LatencyHistogram(), "type=Latency,name=placement");
+
+    private static final ClassValue<LatencyHistogram> MOVES = new ClassValue<>() {
+        @Override
+        protected LatencyHistogram computeValue(Class<?> strategy) {
+            return register(new LatencyHistogram(), "type=Latency,name=move,strategy=" + ObjectName.quote(strategy.getName()));
+        }
+    };
+
+    private Metrics() {
+    }
+
+    // Decision time of one Move.make, per strategy class
+    public static LatencyHistogram move(Class<?> strategy) {
+        return MOVES.get(strategy);
+    }
+
+    private static <T> T register(T bean, String properties) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, new ObjectName(DOMAIN + ":" + properties));
+        } catch (JMException | SecurityException e) {
+            log.warn("Metrics {} are not exposed over JMX: {}", properties, e.getMessage());
+        }
+        return bean;
+    }
+
+}
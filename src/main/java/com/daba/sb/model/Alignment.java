@@ -3,7 +3,7 @@ package com.daba.sb.model;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 @RequiredArgsConstructor
 public enum Alignment {
@@ -16,8 +16,8 @@ public enum Alignment {
     @Getter
     private final int yd;
 
-    public static Alignment getRandom() {
-        return new Random().nextInt(2) % 2 == 0 ? HORIZONTAL : VERTICAL;
+    public static Alignment getRandom(RandomGenerator random) {
+        return random.nextBoolean() ? HORIZONTAL : VERTICAL;
     }
 
     public Alignment turn() {
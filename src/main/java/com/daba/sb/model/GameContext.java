@@ -6,15 +6,6 @@ import lombok.Data;
 @Data
 public class GameContext {
 
-    private static GameContext instance;
-
-    public static GameContext getInstance() {
-        if (instance == null) {
-            instance = new GameContext();
-        }
-        return instance;
-    }
-
     private Player player;
     private Player opponent;
     private GameStage stage;
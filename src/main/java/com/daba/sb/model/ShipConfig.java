@@ -3,6 +3,10 @@ package com.daba.sb.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
 @Data
 @AllArgsConstructor
 public class ShipConfig {
@@ -10,4 +14,17 @@ public class ShipConfig {
     private int count;
     private int size;
 
+    // The same for reordered or split configs of one fleet: counts by size, longest ships first, e.g. "1x4,2x3,3x2,4x1"
+    public static String fleetKey(List<ShipConfig> shipConfigs) {
+        var fleet = new TreeMap<Integer, Integer>();
+        for (ShipConfig shipConfig : shipConfigs) {
+            if (shipConfig.getCount() > 0) {
+                fleet.merge(shipConfig.getSize(), shipConfig.getCount(), Integer::sum);
+            }
+        }
+        return fleet.descendingMap().entrySet().stream()
+                .map(e -> e.getValue() + "x" + e.getKey())
+                .collect(Collectors.joining(","));
+    }
+
 }
@@ -0,0 +1,65 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.process.StrikeResult;
+
+// Shoots one cell on every board of a batch at once. The vector kernel is only loaded when it was built (the vector
+// profile), the jdk.incubator.vector module is there, the sb.batch.vector property does not turn it off and boards
+// have few plane words; otherwise the scalar one does the work
+abstract class BatchKernel {
+
+    static final int SKIPPED = -1;
+    static final int HIT = StrikeResult.WOUND.ordinal();
+    static final int MISS = StrikeResult.MISS.ordinal();
+    static final int DO_AGAIN = StrikeResult.DO_AGAIN.ordinal();
+
+    // By whether the board shoots at all, whether the cell was struck before and whether it holds a ship
+    private static final int[] CODES = {SKIPPED, SKIPPED, SKIPPED, SKIPPED, MISS, HIT, DO_AGAIN, DO_AGAIN};
+
+    // Every lane reads all plane words of its board and keeps the one its cell is in
+    static final int VECTOR_WORD_LIMIT = 4;
+
+    private static final String VECTOR_KERNEL = "com.daba.sb.model.board.VectorBatchKernel";
+
+    static BatchKernel select(int words) {
+        if (words > VECTOR_WORD_LIMIT || !Boolean.parseBoolean(System.getProperty(BoardBatch.VECTOR_PROPERTY, "true"))) {
+            return new ScalarBatchKernel();
+        }
+        var vector = vector();
+        return vector == null ? new ScalarBatchKernel() : vector;
+    }
+
+    // Null when the kernel was not compiled in or the module is missing at run time
+    static BatchKernel vector() {
+        try {
+            return (BatchKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    abstract boolean isVectorized();
+
+    // Planes are word-major: word w of board b is at w * boards + b. Board b shoots shots[b], or sits the round out
+    // when that is negative. A hit or a miss is marked on the planes; codes[b] gets the ordinal of the result, WOUND
+    // for every hit as telling a kill needs the ship, or SKIPPED
+    abstract void shoot(long[] ships, long[] hits, long[] misses, int words, int boards, long[] shots, long[] codes);
+
+    abstract int countZeros(int[] values, int count);
+
+    // Without branches: outcomes of random shots cannot be predicted, and a mispredicted branch costs more than the
+    // strike itself. A board that sits the round out reads and writes back its first word, unchanged
+    static void shootOne(long[] ships, long[] hits, long[] misses, int boards, long[] shots, long[] codes, int board) {
+        long shot = shots[board];
+        int on = (int) (~shot >>> 63);
+        int word = (int) ((shot & -on) >>> 6) * boards + board;
+        long hit = hits[word];
+        long missed = misses[word];
+        int struck = (int) ((hit | missed) >>> shot) & 1;
+        int ship = (int) (ships[word] >>> shot) & 1;
+        long bit = 1L << shot & -(long) (on & ~struck & 1);
+        hits[word] = hit | bit & -(long) ship;
+        misses[word] = missed | bit & ~-(long) ship;
+        codes[board] = CODES[on << 2 | struck << 1 | ship];
+    }
+
+}
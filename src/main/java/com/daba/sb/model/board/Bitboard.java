@@ -0,0 +1,97 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.Alignment;
+
+abstract class Bitboard {
+
+    final BoardGeometry geometry;
+    final int size;
+
+    Bitboard(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+    }
+
+    static Bitboard create(BoardGeometry geometry, StorageMode mode) {
+        if (mode == StorageMode.SPARSE) {
+            return new ChunkedBitboard(geometry);
+        }
+        return geometry.getWords() == 1 ? new SmallBitboard(geometry) : new WideBitboard(geometry);
+    }
+
+    abstract boolean isShip(int cell);
+
+    abstract boolean isHit(int cell);
+
+    abstract boolean isMiss(int cell);
+
+    abstract void setHit(int cell);
+
+    abstract void setMiss(int cell);
+
+    // For taking strikes back
+    abstract void clearHit(int cell);
+
+    abstract void clearMiss(int cell);
+
+    abstract Ship shipAt(int cell);
+
+    abstract void putShip(int cell, Ship ship);
+
+    abstract void addShips(int x, int y, int width, int height);
+
+    abstract void removeShips(int x, int y, int width, int height);
+
+    // Any ship or miss inside the rectangle
+    abstract boolean isOccupied(int x, int y, int width, int height);
+
+    // Marks every non-ship cell inside the rectangle as missed
+    abstract void markMissed(int x, int y, int width, int height);
+
+    // Placement-level operations; implementations with mask tables override these with lookups
+
+    void addShip(int x, int y, int length, Alignment alignment) {
+        addShips(x, y, width(length, alignment), height(length, alignment));
+    }
+
+    void removeShip(int x, int y, int length, Alignment alignment) {
+        removeShips(x, y, width(length, alignment), height(length, alignment));
+    }
+
+    boolean isOccupiedAround(int x, int y, int length, Alignment alignment) {
+        int x0 = Math.max(x - 1, 0);
+        int y0 = Math.max(y - 1, 0);
+        int x1 = Math.min(x + width(length, alignment), size - 1);
+        int y1 = Math.min(y + height(length, alignment), size - 1);
+        return isOccupied(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
+    }
+
+    void missAround(int x, int y, int length, Alignment alignment) {
+        int x0 = Math.max(x - 1, 0);
+        int y0 = Math.max(y - 1, 0);
+        int x1 = Math.min(x + width(length, alignment), size - 1);
+        int y1 = Math.min(y + height(length, alignment), size - 1);
+        markMissed(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
+    }
+
+    // Shot planes as row-major words of 64 cells, for copying a board in bulk
+    abstract long hitWord(int word);
+
+    abstract long missWord(int word);
+
+    Figure figureAt(int cell) {
+        if (isShip(cell)) {
+            return isHit(cell) ? Figure.DESTROYED : Figure.SHIP;
+        }
+        return isMiss(cell) ? Figure.MISS : Figure.EMPTY;
+    }
+
+    private static int width(int length, Alignment alignment) {
+        return alignment == Alignment.HORIZONTAL ? length : 1;
+    }
+
+    private static int height(int length, Alignment alignment) {
+        return alignment == Alignment.VERTICAL ? length : 1;
+    }
+
+}
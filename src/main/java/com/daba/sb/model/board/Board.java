@@ -1,88 +1,253 @@
 package com.daba.sb.model.board;
 
-import com.daba.sb.util.BoardUtils;
 import com.daba.sb.model.process.StrikeResult;
 import com.daba.sb.model.Alignment;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 
 @Data
 public class Board {
 
+    // Largest side for which every cell index still fits an int
+    public static final int MAX_SIZE = 46_340;
+
+    // Undo records: the struck cell in the low bits, then the kind of strike, then how many halo cells a kill marked;
+    // those cells are logged right before the record of their kill
+    private static final int KIND_SHIFT = 32;
+    private static final int HALO_SHIFT = 34;
+    private static final int REPEATED = 0;
+    private static final int MISSED = 1;
+    private static final int WOUNDED = 2;
+    private static final int KILLED = 3;
+    private static final int INITIAL_UNDO_CAPACITY = 256;
+
     private int size;
-    private Figure[][] figures;
-    private Collection<Ship> fleet;
+    private BoardGeometry geometry;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Bitboard planes;
+    private List<Ship> fleet;
     private BoardStats stats;
-    private Map<Dot, Ship> shipCache;
+    // Bumped on every change; each row keeps the stamp of its latest change, so views can redraw only what changed
+    @Setter(AccessLevel.NONE)
+    private long changeStamp;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] rowStamps;
+    // While reversible every strike is logged, so that lookahead can strike and undo on this one board
+    // instead of searching on copies; the log only grows while it fills up, strikes allocate nothing after that
+    @Setter(AccessLevel.NONE)
+    private boolean reversible;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] undoLog;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int undoLength;
+    // Strikes that can be taken back
+    @Setter(AccessLevel.NONE)
+    private int undoDepth;
 
     public Board(int size){
-        if (size < 3 || size > 9) {
-            throw new IllegalArgumentException("Board size cannot be less than 3 and more than 9; requested size is " + size);
+        this(size, StorageMode.forSize(size));
+    }
+
+    public Board(int size, StorageMode storageMode) {
+        if (size < 3 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size cannot be less than 3 and more than " + MAX_SIZE + "; requested size is " + size);
         }
         this.size = size;
-        initEmptyBoard(size);
-        fleet = new HashSet<>();
-        shipCache = new HashMap<>();
+        geometry = BoardGeometry.of(size);
+        planes = Bitboard.create(geometry, storageMode);
+        fleet = new ArrayList<>();
         stats = new BoardStats();
+        rowStamps = new long[size];
     }
 
     public boolean placeShip(int shipSize, Dot dot, Alignment alignment) {
-        if (!canBePlaced(shipSize, dot, alignment)) {
+        return placeShip(shipSize, dot.getX(), dot.getY(), alignment);
+    }
+
+    public boolean placeShip(int shipSize, int x, int y, Alignment alignment) {
+        if (!canBePlaced(shipSize, x, y, alignment)) {
             return false;
         }
-        Ship ship = new Ship(shipSize, dot, alignment);
-        if (intersectsOrTouches(ship)) {
+        if (planes.isOccupiedAround(x, y, shipSize, alignment)) {
             return false;
         }
+        Ship ship = new Ship(fleet.size(), shipSize, geometry.dot(x, y), alignment);
         fleet.add(ship);
+        planes.addShip(x, y, shipSize, alignment);
         for (Dot d : ship.getDots()) {
-            shipCache.put(d, ship);
-            set(d, Figure.SHIP);
+            planes.putShip(geometry.cell(d), ship);
         }
         stats.shipAdded(ship);
+        touchRows(y, alignment == Alignment.VERTICAL ? y + shipSize - 1 : y);
         return true;
     }
 
+    // Takes back the most recently placed ship, so placement search can backtrack on the board itself
+    public void undoPlacement() {
+        if (fleet.isEmpty()) {
+            throw new IllegalStateException("There is no ship to take back");
+        }
+        if (stats.getCellsDestroyed() > 0 || stats.getTimesMissed() > 0) {
+            throw new IllegalStateException("Ships cannot be taken back once the board has been struck");
+        }
+        var ship = fleet.remove(fleet.size() - 1);
+        planes.removeShip(ship.getBase().getX(), ship.getBase().getY(), ship.getSize(), ship.getAlignment());
+        for (Dot d : ship.getDots()) {
+            planes.putShip(geometry.cell(d), null);
+        }
+        stats.shipRemoved(ship);
+        int y = ship.getBase().getY();
+        touchRows(y, ship.getAlignment() == Alignment.VERTICAL ? y + ship.getSize() - 1 : y);
+    }
+
     public StrikeResult strike(Dot dot) {
-        int x = dot.getX();
-        int y = dot.getY();
+        return strike(dot.getX(), dot.getY());
+    }
+
+    public StrikeResult strike(int cell) {
+        if (cell < 0 || cell >= geometry.getCellCount()) {
+            throw new IllegalArgumentException("Strike position is out of bound");
+        }
+        return strike(cell % size, cell / size);
+    }
+
+    public StrikeResult strike(int x, int y) {
         if (x < 0 || y < 0 || x > size - 1 || y > size - 1) {
             throw new IllegalArgumentException("Strike position is out of bound");
         }
-        Figure current = get(dot);
-        if (current == Figure.MISS || current == Figure.DESTROYED) {
+        int cell = geometry.cell(x, y);
+        if (planes.isMiss(cell) || planes.isHit(cell)) {
+            log(cell, REPEATED, 0);
             return StrikeResult.DO_AGAIN;
         }
-        var ship = shipCache.get(dot);
+        var ship = planes.shipAt(cell);
         if (ship == null) {
-            set(dot, Figure.MISS);
+            planes.setMiss(cell);
             stats.miss();
+            touchRows(y, y);
+            log(cell, MISSED, 0);
             return StrikeResult.MISS;
         }
-        set(dot, Figure.DESTROYED);
-        var strikeResult = ship.strike();
+        planes.setHit(cell);
+        touchRows(y, y);
+        var strikeResult = stats.shipStruck(ship);
         if (strikeResult == StrikeResult.KILLED) {
-            stats.shipDestroyed(ship);
+            log(cell, KILLED, reversible ? logHalo(ship) : 0);
             markAdjacentCells(ship);
-        }
-        if (strikeResult == StrikeResult.WOUND) {
-            stats.shipWound(ship);
+        } else {
+            log(cell, WOUNDED, 0);
         }
         return strikeResult;
     }
 
+    // The log starts empty either way; strikes logged before can no longer be taken back
+    public void setReversible(boolean reversible) {
+        this.reversible = reversible;
+        undoLength = 0;
+        undoDepth = 0;
+        if (reversible && undoLog == null) {
+            undoLog = new long[INITIAL_UNDO_CAPACITY];
+        } else if (!reversible) {
+            undoLog = null;
+        }
+    }
+
+    // Takes back the latest logged strike, halo and stats included, and tells what that strike did
+    public StrikeResult undo() {
+        if (undoDepth == 0) {
+            throw new IllegalStateException("There is no strike to take back");
+        }
+        long record = undoLog[--undoLength];
+        undoDepth--;
+        int cell = (int) record;
+        int kind = (int) (record >>> KIND_SHIFT) & 3;
+        int y = cell / size;
+        switch (kind) {
+            case MISSED:
+                planes.clearMiss(cell);
+                stats.unmiss();
+                touchRows(y, y);
+                return StrikeResult.MISS;
+            case WOUNDED:
+            case KILLED:
+                var ship = planes.shipAt(cell);
+                if (kind == KILLED) {
+                    for (int halo = (int) (record >>> HALO_SHIFT); halo > 0; halo--) {
+                        planes.clearMiss((int) undoLog[--undoLength]);
+                    }
+                    touchHaloRows(ship);
+                }
+                planes.clearHit(cell);
+                stats.shipUnstruck(ship);
+                touchRows(y, y);
+                return kind == KILLED ? StrikeResult.KILLED : StrikeResult.WOUND;
+            default:
+                return StrikeResult.DO_AGAIN;
+        }
+    }
+
+    // Row-major words of 64 cells each, the layout of the shot planes below
+    public int getPlaneWords() {
+        return geometry.getWords();
+    }
+
+    public long getHitWord(int word) {
+        return planes.hitWord(word);
+    }
+
+    public long getMissWord(int word) {
+        return planes.missWord(word);
+    }
+
+    // Puts back a word of saved shot planes; not strikes, so no stats change and no halo is marked
+    public void restoreStrikes(int word, long hits, long misses) {
+        if (word < 0 || word >= geometry.getWords()) {
+            throw new IllegalArgumentException("Restored word is out of bound");
+        }
+        if ((hits & misses) != 0) {
+            throw new IllegalArgumentException("Restored cells cannot be both hit and missed");
+        }
+        if (undoDepth > 0) {
+            throw new IllegalStateException("Strikes cannot be restored while logged strikes can still be taken back");
+        }
+        int from = word << 6;
+        long struck = hits | misses;
+        if (struck == 0) {
+            return;
+        }
+        if (Long.SIZE - Long.numberOfLeadingZeros(struck) > geometry.getCellCount() - from) {
+            throw new IllegalArgumentException("Restored cells are out of bound");
+        }
+        for (long bits = struck; bits != 0; bits &= bits - 1) {
+            int cell = from + Long.numberOfTrailingZeros(bits);
+            boolean hit = (hits & Long.lowestOneBit(bits)) != 0;
+            if (planes.isShip(cell) != hit) {
+                throw new IllegalArgumentException("Restored " + (hit ? "hit" : "miss") + " at cell " + cell + " does not match the fleet");
+            }
+            if (hit) {
+                planes.setHit(cell);
+            } else {
+                planes.setMiss(cell);
+            }
+        }
+        touchRows(from / size, (from + Long.SIZE - 1 - Long.numberOfLeadingZeros(struck)) / size);
+    }
+
     public boolean isGameOver() {
-        return fleet.stream().allMatch(ship -> ship.getCellsLeft() == 0);
+        return stats.isFleetDestroyed();
     }
 
-    private boolean canBePlaced(int shipSize, Dot dot, Alignment alignment) {
-        int x = dot.getX();
-        int y = dot.getY();
+    private boolean canBePlaced(int shipSize, int x, int y, Alignment alignment) {
         if (alignment == Alignment.HORIZONTAL) {
             if (x < 0 || x > size - shipSize || y < 0 || y > size - 1) {
                 return false;
@@ -96,51 +261,76 @@ public class Board {
         return true;
     }
 
-    private boolean intersectsOrTouches(Ship ship) {
-        for (Dot dot : ship.getDots()) {
-            if (get(dot) != Figure.EMPTY) {
-                return true;
-            }
-            if (BoardUtils.getAdjacentCells(dot, size).stream().anyMatch(d -> get(d) != Figure.EMPTY)) {
-                return true;
+    private void markAdjacentCells(Ship ship) {
+        planes.missAround(ship.getBase().getX(), ship.getBase().getY(), ship.getSize(), ship.getAlignment());
+        touchHaloRows(ship);
+    }
+
+    private void touchHaloRows(Ship ship) {
+        int y = ship.getBase().getY();
+        int bottom = ship.getAlignment() == Alignment.VERTICAL ? y + ship.getSize() : y + 1;
+        touchRows(Math.max(0, y - 1), Math.min(size - 1, bottom));
+    }
+
+    private void log(int cell, int kind, int halo) {
+        if (!reversible) {
+            return;
+        }
+        ensureUndoCapacity(1);
+        undoLog[undoLength++] = (long) halo << HALO_SHIFT | (long) kind << KIND_SHIFT | cell;
+        undoDepth++;
+    }
+
+    // Logs the cells around the ship that its kill is about to mark, the ones not missed already; returns their count
+    private int logHalo(Ship ship) {
+        int x = ship.getBase().getX();
+        int y = ship.getBase().getY();
+        boolean horizontal = ship.getAlignment() == Alignment.HORIZONTAL;
+        int x0 = Math.max(x - 1, 0);
+        int y0 = Math.max(y - 1, 0);
+        int x1 = Math.min(x + (horizontal ? ship.getSize() : 1), size - 1);
+        int y1 = Math.min(y + (horizontal ? 1 : ship.getSize()), size - 1);
+        ensureUndoCapacity((x1 - x0 + 1) * (y1 - y0 + 1) + 1);
+        int count = 0;
+        for (int row = y0; row <= y1; row++) {
+            for (int column = x0; column <= x1; column++) {
+                int cell = geometry.cell(column, row);
+                if (!planes.isShip(cell) && !planes.isMiss(cell)) {
+                    undoLog[undoLength++] = cell;
+                    count++;
+                }
             }
         }
-        return false;
+        return count;
     }
 
-    private void initEmptyBoard(int size) {
-        figures = new Figure[size][size];
-        for (int i = 0; i < size; i++) {
-            Figure[] row = new Figure[size];
-            Arrays.fill(row, Figure.EMPTY);
-            figures[i] = row;
+    private void ensureUndoCapacity(int more) {
+        if (undoLength + more > undoLog.length) {
+            undoLog = Arrays.copyOf(undoLog, Math.max(undoLog.length * 2, undoLength + more));
         }
     }
 
-    private void markAdjacentCells(Ship ship) {
-        for (Dot dot : ship.getDots()) {
-            BoardUtils.getAdjacentCells(dot, size).forEach(d -> {
-                if (get(d) == Figure.EMPTY) {
-                    set(d, Figure.MISS);
-                }
-            });
+    private void touchRows(int from, int to) {
+        changeStamp++;
+        for (int row = from; row <= to; row++) {
+            rowStamps[row] = changeStamp;
         }
     }
 
+    public long getRowStamp(int row) {
+        return rowStamps[row];
+    }
+
     public Figure get(int x, int y) {
-        return figures[y][x];
+        return planes.figureAt(geometry.cell(x, y));
     }
 
     public Figure get(Dot dot) {
         return get(dot.getX(), dot.getY());
     }
 
-    private void set(int x, int y, Figure figure) {
-        figures[y][x] = figure;
-    }
-
-    private void set(Dot dot, Figure figure) {
-        set(dot.getX(), dot.getY(), figure);
+    public Figure get(int cell) {
+        return planes.figureAt(cell);
     }
 
 }
@@ -0,0 +1,253 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.process.StrikeResult;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Many games on boards of one size, played in lockstep for evaluations that take millions of strikes. The bit planes
+ * of all boards sit in shared arrays, word by word: the first word of every board, then the second word of every
+ * board and so on, so a round in which each board shoots one cell is a few passes over flat arrays rather than a
+ * strike call on each {@link Board} object. Built with the vector profile and run with the jdk.incubator.vector
+ * module added ({@code --add-modules jdk.incubator.vector}), those passes run one board per vector lane for boards
+ * of up to 16x16; otherwise, for larger boards, or with the {@value #VECTOR_PROPERTY} system property set to false,
+ * they run in plain scalar code. Both are branch free, as random shots make branches unpredictable.
+ * <p>
+ * Every board gets exactly the results {@link Board#strike} would give it: a repeated cell is DO_AGAIN, and a kill
+ * marks the ring around the ship as missed. A batch is not thread safe; give each thread a batch of its own.
+ */
+public final class BoardBatch {
+
+    public static final String VECTOR_PROPERTY = "sb.batch.vector";
+
+    // By kernel code plus one, SKIPPED being -1
+    private static final StrikeResult[] RESULTS = new StrikeResult[StrikeResult.values().length + 1];
+
+    static {
+        for (StrikeResult result : StrikeResult.values()) {
+            RESULTS[result.ordinal() + 1] = result;
+        }
+    }
+
+    private final BoardGeometry geometry;
+    @Getter
+    private final int size;
+    @Getter
+    private final int boards;
+    @Getter
+    private final int shipsPerBoard;
+    private final int words;
+    private final int cells;
+    private final BatchKernel kernel;
+
+    // Word w of board b is at w * boards + b
+    private final long[] ships;
+    private final long[] hits;
+    private final long[] misses;
+
+    // Per board and cell, the ship there counted from 1; 0 is water
+    private final int[] shipAt;
+    // Per board and ship: where its halo masks start, or -1 when the size has no masks and the halo is walked from
+    // the base cell, length and alignment
+    private final int[] shipMasks;
+    private final int[] shipBase;
+    private final int[] shipLength;
+    private final boolean[] shipVertical;
+    private final int[] shipCellsLeft;
+    private final int[] shipsLeft;
+    private final int[] fleetSize;
+
+    private final long[] shots;
+    private final long[] codes;
+    private final int[] hitBoards;
+
+    public BoardBatch(int size, int boards, int shipsPerBoard) {
+        this(size, boards, shipsPerBoard, BatchKernel::select);
+    }
+
+    // The kernel is picked by the number of plane words per board
+    BoardBatch(int size, int boards, int shipsPerBoard, IntFunction<BatchKernel> kernels) {
+        if (size < 3 || size > Board.MAX_SIZE) {
+            throw new IllegalArgumentException("Board size cannot be less than 3 and more than " + Board.MAX_SIZE + "; requested size is " + size);
+        }
+        if (boards < 1 || shipsPerBoard < 1) {
+            throw new IllegalArgumentException("Batch needs at least one board with at least one ship");
+        }
+        this.geometry = BoardGeometry.of(size);
+        if ((long) boards * geometry.getCellCount() > Integer.MAX_VALUE - 8 || (long) boards * shipsPerBoard > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(boards + " boards of size " + size + " do not fit one batch");
+        }
+        this.size = size;
+        this.boards = boards;
+        this.shipsPerBoard = shipsPerBoard;
+        this.words = geometry.getWords();
+        this.cells = geometry.getCellCount();
+        this.kernel = kernels.apply(words);
+        ships = new long[boards * words];
+        hits = new long[boards * words];
+        misses = new long[boards * words];
+        shipAt = new int[boards * cells];
+        shipMasks = new int[boards * shipsPerBoard];
+        shipBase = new int[boards * shipsPerBoard];
+        shipLength = new int[boards * shipsPerBoard];
+        shipVertical = new boolean[boards * shipsPerBoard];
+        shipCellsLeft = new int[boards * shipsPerBoard];
+        shipsLeft = new int[boards];
+        fleetSize = new int[boards];
+        shots = new long[boards];
+        codes = new long[boards];
+        hitBoards = new int[boards];
+    }
+
+    public boolean isVectorized() {
+        return kernel.isVectorized();
+    }
+
+    // Copies the fleet and the strikes of the board, which must be of the batch size
+    public void load(int board, Board source) {
+        checkBoard(board);
+        if (source.getSize() != size) {
+            throw new IllegalArgumentException("Board of size " + source.getSize() + " cannot join a batch of size " + size);
+        }
+        var fleet = source.getFleet();
+        if (fleet.size() > shipsPerBoard) {
+            throw new IllegalArgumentException("Batch holds " + shipsPerBoard + " ships per board, the board has " + fleet.size());
+        }
+        for (int w = 0; w < words; w++) {
+            ships[w * boards + board] = 0;
+            hits[w * boards + board] = source.getHitWord(w);
+            misses[w * boards + board] = source.getMissWord(w);
+        }
+        Arrays.fill(shipAt, board * cells, (board + 1) * cells, 0);
+        int afloat = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            var ship = fleet.get(i);
+            int slot = board * shipsPerBoard + i;
+            int base = geometry.cell(ship.getBase());
+            shipBase[slot] = base;
+            shipLength[slot] = ship.getSize();
+            shipVertical[slot] = ship.getAlignment() == Alignment.VERTICAL;
+            shipMasks[slot] = geometry.hasMaskTables() ? geometry.maskOffset(ship.getSize(), ship.getAlignment(), base) : -1;
+            shipCellsLeft[slot] = source.getStats().getCellsLeft(ship);
+            if (shipCellsLeft[slot] > 0) {
+                afloat++;
+            }
+            for (Dot dot : ship.getDots()) {
+                int cell = geometry.cell(dot);
+                ships[(cell >>> 6) * boards + board] |= 1L << cell;
+                shipAt[board * cells + cell] = i + 1;
+            }
+        }
+        fleetSize[board] = fleet.size();
+        shipsLeft[board] = afloat;
+    }
+
+    // Takes every strike back: each board is left with its fleet as placed
+    public void clearStrikes() {
+        Arrays.fill(hits, 0);
+        Arrays.fill(misses, 0);
+        for (int board = 0; board < boards; board++) {
+            for (int i = 0; i < fleetSize[board]; i++) {
+                int slot = board * shipsPerBoard + i;
+                shipCellsLeft[slot] = shipLength[slot];
+            }
+            shipsLeft[board] = fleetSize[board];
+        }
+    }
+
+    // One round: board b shoots cells[b] and gets what Board.strike would return in results[b]; a negative cell
+    // leaves the board out of the round, with a null result
+    public void strike(int[] cells, StrikeResult[] results) {
+        if (cells.length < boards || results.length < boards) {
+            throw new IllegalArgumentException("Every board of the batch needs a cell and a result");
+        }
+        for (int board = 0; board < boards; board++) {
+            if (cells[board] >= this.cells) {
+                throw new IllegalArgumentException("Strike position is out of bound");
+            }
+            shots[board] = cells[board];
+        }
+        kernel.shoot(ships, hits, misses, words, boards, shots, codes);
+        // Hits are gathered without a branch per board and settled after, they need the ship
+        int hitCount = 0;
+        for (int board = 0; board < boards; board++) {
+            int code = (int) codes[board];
+            results[board] = RESULTS[code + 1];
+            hitBoards[hitCount] = board;
+            hitCount += code == BatchKernel.HIT ? 1 : 0;
+        }
+        for (int i = 0; i < hitCount; i++) {
+            int board = hitBoards[i];
+            results[board] = struck(board, cells[board]);
+        }
+    }
+
+    public boolean isGameOver(int board) {
+        checkBoard(board);
+        return shipsLeft[board] == 0;
+    }
+
+    public int countGamesOver() {
+        return kernel.countZeros(shipsLeft, boards);
+    }
+
+    public Figure get(int board, int cell) {
+        checkBoard(board);
+        int word = (cell >>> 6) * boards + board;
+        long bit = 1L << cell;
+        if ((ships[word] & bit) != 0) {
+            return (hits[word] & bit) != 0 ? Figure.DESTROYED : Figure.SHIP;
+        }
+        return (misses[word] & bit) != 0 ? Figure.MISS : Figure.EMPTY;
+    }
+
+    // Same words as Board.getHitWord and Board.getMissWord
+    public long getHitWord(int board, int word) {
+        checkBoard(board);
+        return hits[word * boards + board];
+    }
+
+    public long getMissWord(int board, int word) {
+        checkBoard(board);
+        return misses[word * boards + board];
+    }
+
+    // The hit is already on the planes; what is left is what BoardStats and the halo do in Board.strike
+    private StrikeResult struck(int board, int cell) {
+        int slot = board * shipsPerBoard + shipAt[board * cells + cell] - 1;
+        if (--shipCellsLeft[slot] > 0) {
+            return StrikeResult.WOUND;
+        }
+        shipsLeft[board]--;
+        if (shipMasks[slot] >= 0) {
+            var halos = geometry.getHaloMasks();
+            for (int w = 0; w < words; w++) {
+                int at = w * boards + board;
+                misses[at] |= halos[shipMasks[slot] + w] & ~ships[at];
+            }
+        } else {
+            int x = shipBase[slot] % size;
+            int y = shipBase[slot] / size;
+            int x1 = Math.min(x + (shipVertical[slot] ? 1 : shipLength[slot]), size - 1);
+            int y1 = Math.min(y + (shipVertical[slot] ? shipLength[slot] : 1), size - 1);
+            for (int row = Math.max(y - 1, 0); row <= y1; row++) {
+                for (int column = Math.max(x - 1, 0); column <= x1; column++) {
+                    int c = geometry.cell(column, row);
+                    int at = (c >>> 6) * boards + board;
+                    misses[at] |= 1L << c & ~ships[at];
+                }
+            }
+        }
+        return StrikeResult.KILLED;
+    }
+
+    private void checkBoard(int board) {
+        if (board < 0 || board >= boards) {
+            throw new IllegalArgumentException("Batch has no board " + board);
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.Alignment;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+// Size-dependent lookup tables, built once per board size and shared by every board of that size
+public final class BoardGeometry {
+
+    private static final int[] DX = {0, 0, 1, -1, 1, 1, -1, -1};
+    private static final int[] DY = {1, -1, 0, 0, 1, -1, 1, -1};
+
+    // Boards up to this side get precomputed ship and halo masks; larger ones fall back to rectangle runs
+    static final int MASK_TABLE_SIDE = 16;
+
+    private static final BoardGeometry[] CACHE = new BoardGeometry[Dot.CACHED_SIDE + 1];
+
+    @Getter
+    private final int size;
+
+    // Longs per bit plane
+    @Getter
+    private final int words;
+
+    // Canonical dot of every cell; only kept for sizes whose dots are all cached
+    private final Dot[] dots;
+
+    // In-bounds 8-neighbourhood of every cell; only kept together with the dots
+    private final int[][] neighbours;
+
+    // Per cell: the 8-neighbourhood as a bit plane of `words` longs
+    private final long[] neighbourMasks;
+
+    // Per (alignment, length, base cell): the ship footprint and the footprint plus its touching ring
+    private final long[] shipMasks;
+    private final long[] haloMasks;
+
+    private BoardGeometry(int size) {
+        this.size = size;
+        this.words = (size * size + Long.SIZE - 1) >>> 6;
+        if (size <= Dot.CACHED_SIDE) {
+            dots = new Dot[size * size];
+            neighbours = new int[size * size][];
+            for (int cell = 0; cell < dots.length; cell++) {
+                dots[cell] = Dot.of(cell % size, cell / size);
+                neighbours[cell] = computeNeighbours(cell);
+            }
+        } else {
+            dots = null;
+            neighbours = null;
+        }
+        if (size <= MASK_TABLE_SIDE) {
+            neighbourMasks = buildNeighbourMasks();
+            shipMasks = new long[2 * size * size * size * words];
+            haloMasks = new long[shipMasks.length];
+            buildPlacementMasks();
+        } else {
+            neighbourMasks = null;
+            shipMasks = null;
+            haloMasks = null;
+        }
+    }
+
+    public static BoardGeometry of(int size) {
+        if (size > Dot.CACHED_SIDE) {
+            return new BoardGeometry(size);
+        }
+        var geometry = CACHE[size];
+        if (geometry == null) {
+            geometry = new BoardGeometry(size);
+            CACHE[size] = geometry;
+        }
+        return geometry;
+    }
+
+    public int cell(int x, int y) {
+        return y * size + x;
+    }
+
+    public int cell(Dot dot) {
+        return cell(dot.getX(), dot.getY());
+    }
+
+    public Dot dot(int cell) {
+        return dots != null ? dots[cell] : Dot.of(cell % size, cell / size);
+    }
+
+    public Dot dot(int x, int y) {
+        return dots != null ? dots[cell(x, y)] : Dot.of(x, y);
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < size && y < size;
+    }
+
+    public int getCellCount() {
+        return size * size;
+    }
+
+    // Shared array, must not be modified
+    public int[] neighbours(int cell) {
+        return neighbours != null ? neighbours[cell] : computeNeighbours(cell);
+    }
+
+    public boolean hasMaskTables() {
+        return shipMasks != null;
+    }
+
+    public long neighbourMask(int cell, int word) {
+        return neighbourMasks[cell * words + word];
+    }
+
+    // Start of the placement's masks in getShipMasks()/getHaloMasks(); the placement must fit the board
+    public int maskOffset(int length, Alignment alignment, int cell) {
+        return ((alignment.ordinal() * size + length - 1) * size * size + cell) * words;
+    }
+
+    long[] getShipMasks() {
+        return shipMasks;
+    }
+
+    long[] getHaloMasks() {
+        return haloMasks;
+    }
+
+    private int[] computeNeighbours(int cell) {
+        int x = cell % size;
+        int y = cell / size;
+        int[] result = new int[DX.length];
+        int count = 0;
+        for (int i = 0; i < DX.length; i++) {
+            if (contains(x + DX[i], y + DY[i])) {
+                result[count++] = cell(x + DX[i], y + DY[i]);
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private long[] buildNeighbourMasks() {
+        long[] masks = new long[size * size * words];
+        for (int cell = 0; cell < size * size; cell++) {
+            for (int neighbour : neighbours(cell)) {
+                masks[cell * words + (neighbour >>> 6)] |= 1L << neighbour;
+            }
+        }
+        return masks;
+    }
+
+    private void buildPlacementMasks() {
+        for (Alignment alignment : Alignment.values()) {
+            for (int length = 1; length <= size; length++) {
+                for (int y = 0; y + (length - 1) * alignment.getYd() < size; y++) {
+                    for (int x = 0; x + (length - 1) * alignment.getXd() < size; x++) {
+                        int offset = maskOffset(length, alignment, cell(x, y));
+                        int width = alignment == Alignment.HORIZONTAL ? length : 1;
+                        int height = alignment == Alignment.VERTICAL ? length : 1;
+                        for (int v = y - 1; v <= y + height; v++) {
+                            for (int h = x - 1; h <= x + width; h++) {
+                                if (!contains(h, v)) {
+                                    continue;
+                                }
+                                int c = cell(h, v);
+                                haloMasks[offset + (c >>> 6)] |= 1L << c;
+                                if (h >= x && h < x + width && v >= y && v < y + height) {
+                                    shipMasks[offset + (c >>> 6)] |= 1L << c;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -1,15 +1,20 @@
 package com.daba.sb.model.board;
 
+import com.daba.sb.model.process.StrikeResult;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 @Data
 @NoArgsConstructor
 public class BoardStats {
 
+    private static final int INITIAL_FLEET_CAPACITY = 16;
+
     private int cellsDestroyed;
     private int cellsLeft;
 
@@ -19,34 +24,85 @@ public class BoardStats {
 
     private int timesMissed;
 
-    private Set<Ship> woundShipsCache = new HashSet<>();
+    // Cells still afloat, by ship id
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] shipCellsLeft = new int[INITIAL_FLEET_CAPACITY];
 
     public void shipAdded(Ship ship) {
+        if (ship.getId() >= shipCellsLeft.length) {
+            shipCellsLeft = Arrays.copyOf(shipCellsLeft, Math.max(shipCellsLeft.length * 2, ship.getId() + 1));
+        }
+        shipCellsLeft[ship.getId()] = ship.getSize();
         cellsLeft += ship.getSize();
         shipsLeft++;
     }
 
-    public void shipWound(Ship ship) {
-        if (!woundShipsCache.contains(ship)) {
-            shipsWound++;
-            woundShipsCache.add(ship);
-        }
-        cellsDestroyed++;
-        cellsLeft--;
+    public void shipRemoved(Ship ship) {
+        shipCellsLeft[ship.getId()] = 0;
+        cellsLeft -= ship.getSize();
+        shipsLeft--;
     }
 
-    public void shipDestroyed(Ship ship) {
+    public StrikeResult shipStruck(Ship ship) {
+        int left = --shipCellsLeft[ship.getId()];
         cellsDestroyed++;
         cellsLeft--;
-        shipsDestroyed++;
-        shipsLeft--;
-        if (woundShipsCache.contains(ship)) {
+        if (left > 0) {
+            if (left == ship.getSize() - 1) {
+                shipsWound++;
+            }
+            return StrikeResult.WOUND;
+        }
+        // Only a ship longer than one cell has been counted as wound before it sank
+        if (ship.getSize() > 1) {
             shipsWound--;
         }
+        shipsDestroyed++;
+        shipsLeft--;
+        return StrikeResult.KILLED;
     }
 
     public void miss() {
         timesMissed++;
     }
 
+    // Takes back shipStruck, for boards that undo strikes
+    public void shipUnstruck(Ship ship) {
+        int left = shipCellsLeft[ship.getId()]++;
+        cellsDestroyed--;
+        cellsLeft++;
+        if (left > 0) {
+            if (left == ship.getSize() - 1) {
+                shipsWound--;
+            }
+            return;
+        }
+        if (ship.getSize() > 1) {
+            shipsWound++;
+        }
+        shipsDestroyed--;
+        shipsLeft++;
+    }
+
+    public void unmiss() {
+        timesMissed--;
+    }
+
+    // For restoring saved boards; the totals are restored through their setters
+    public void restoreCellsLeft(Ship ship, int cellsLeft) {
+        if (cellsLeft < 0 || cellsLeft > ship.getSize()) {
+            throw new IllegalArgumentException("Ship of size " + ship.getSize() + " cannot have " + cellsLeft + " cells left");
+        }
+        shipCellsLeft[ship.getId()] = cellsLeft;
+    }
+
+    public int getCellsLeft(Ship ship) {
+        return shipCellsLeft[ship.getId()];
+    }
+
+    public boolean isFleetDestroyed() {
+        return shipsLeft == 0;
+    }
+
 }
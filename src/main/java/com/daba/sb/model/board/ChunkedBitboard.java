@@ -0,0 +1,262 @@
+package com.daba.sb.model.board;
+
+import java.util.Arrays;
+
+final class ChunkedBitboard extends Bitboard {
+
+    private static final int SHIFT = 3;
+    private static final int SIDE = 1 << SHIFT;
+    private static final int LOCAL_MASK = SIDE - 1;
+
+    // ROW_REPEAT[h] has the lowest bit of each of the first h chunk rows set
+    private static final long[] ROW_REPEAT = new long[SIDE + 1];
+
+    static {
+        for (int h = 1; h <= SIDE; h++) {
+            ROW_REPEAT[h] = ROW_REPEAT[h - 1] | 1L << (h - 1) * SIDE;
+        }
+    }
+
+    private static final int EMPTY_KEY = -1;
+
+    private final int chunksPerRow;
+
+    // Open addressing chunk table, keyed by chunk index
+    private int[] keys;
+    private Chunk[] chunks;
+    private int chunkCount;
+
+    ChunkedBitboard(BoardGeometry geometry) {
+        super(geometry);
+        this.chunksPerRow = (size + SIDE - 1) >>> SHIFT;
+        this.keys = new int[16];
+        this.chunks = new Chunk[16];
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    @Override
+    boolean isShip(int cell) {
+        var chunk = chunkOf(cell);
+        return chunk != null && (chunk.ships & bit(cell)) != 0;
+    }
+
+    @Override
+    boolean isHit(int cell) {
+        var chunk = chunkOf(cell);
+        return chunk != null && (chunk.hits & bit(cell)) != 0;
+    }
+
+    @Override
+    boolean isMiss(int cell) {
+        var chunk = chunkOf(cell);
+        return chunk != null && (chunk.misses & bit(cell)) != 0;
+    }
+
+    @Override
+    void setHit(int cell) {
+        findOrCreate(chunkKey(cell % size, cell / size)).hits |= bit(cell);
+    }
+
+    @Override
+    void setMiss(int cell) {
+        findOrCreate(chunkKey(cell % size, cell / size)).misses |= bit(cell);
+    }
+
+    // The chunk stays, a cleared cell is likely struck again soon
+    @Override
+    void clearHit(int cell) {
+        var chunk = chunkOf(cell);
+        if (chunk != null) {
+            chunk.hits &= ~bit(cell);
+        }
+    }
+
+    @Override
+    void clearMiss(int cell) {
+        var chunk = chunkOf(cell);
+        if (chunk != null) {
+            chunk.misses &= ~bit(cell);
+        }
+    }
+
+    @Override
+    long hitWord(int word) {
+        return gather(word, true);
+    }
+
+    @Override
+    long missWord(int word) {
+        return gather(word, false);
+    }
+
+    @Override
+    Ship shipAt(int cell) {
+        var chunk = chunkOf(cell);
+        return chunk == null || chunk.shipAt == null ? null : chunk.shipAt[localIndex(cell)];
+    }
+
+    @Override
+    void putShip(int cell, Ship ship) {
+        var chunk = findOrCreate(chunkKey(cell % size, cell / size));
+        if (chunk.shipAt == null) {
+            chunk.shipAt = new Ship[SIDE * SIDE];
+        }
+        chunk.shipAt[localIndex(cell)] = ship;
+    }
+
+    @Override
+    void addShips(int x, int y, int width, int height) {
+        for (int cy = y >>> SHIFT; cy <= (y + height - 1) >>> SHIFT; cy++) {
+            for (int cx = x >>> SHIFT; cx <= (x + width - 1) >>> SHIFT; cx++) {
+                var chunk = findOrCreate(cy * chunksPerRow + cx);
+                chunk.ships |= localRect(cx, cy, x, y, width, height);
+            }
+        }
+    }
+
+    @Override
+    void removeShips(int x, int y, int width, int height) {
+        for (int cy = y >>> SHIFT; cy <= (y + height - 1) >>> SHIFT; cy++) {
+            for (int cx = x >>> SHIFT; cx <= (x + width - 1) >>> SHIFT; cx++) {
+                var chunk = find(cy * chunksPerRow + cx);
+                if (chunk != null) {
+                    chunk.ships &= ~localRect(cx, cy, x, y, width, height);
+                }
+            }
+        }
+    }
+
+    @Override
+    boolean isOccupied(int x, int y, int width, int height) {
+        for (int cy = y >>> SHIFT; cy <= (y + height - 1) >>> SHIFT; cy++) {
+            for (int cx = x >>> SHIFT; cx <= (x + width - 1) >>> SHIFT; cx++) {
+                var chunk = find(cy * chunksPerRow + cx);
+                if (chunk != null && ((chunk.ships | chunk.misses) & localRect(cx, cy, x, y, width, height)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void markMissed(int x, int y, int width, int height) {
+        for (int cy = y >>> SHIFT; cy <= (y + height - 1) >>> SHIFT; cy++) {
+            for (int cx = x >>> SHIFT; cx <= (x + width - 1) >>> SHIFT; cx++) {
+                var chunk = findOrCreate(cy * chunksPerRow + cx);
+                chunk.misses |= localRect(cx, cy, x, y, width, height) & ~chunk.ships;
+            }
+        }
+    }
+
+    // Collects a row-major word from the chunk rows it crosses, a run of up to 8 cells at a time
+    private long gather(int word, boolean hits) {
+        int from = word << 6;
+        int to = Math.min(from + Long.SIZE, size * size);
+        long bits = 0;
+        for (int cell = from; cell < to; ) {
+            int x = cell % size;
+            int y = cell / size;
+            int run = Math.min(Math.min(to - cell, size - x), SIDE - (x & LOCAL_MASK));
+            var chunk = find(chunkKey(x, y));
+            if (chunk != null) {
+                long plane = hits ? chunk.hits : chunk.misses;
+                bits |= (plane >>> ((y & LOCAL_MASK) << SHIFT | x & LOCAL_MASK) & (1L << run) - 1) << cell - from;
+            }
+            cell += run;
+        }
+        return bits;
+    }
+
+    private long bit(int cell) {
+        return 1L << localIndex(cell);
+    }
+
+    private int localIndex(int cell) {
+        int x = cell % size;
+        int y = cell / size;
+        return (y & LOCAL_MASK) << SHIFT | x & LOCAL_MASK;
+    }
+
+    private int chunkKey(int x, int y) {
+        return (y >>> SHIFT) * chunksPerRow + (x >>> SHIFT);
+    }
+
+    // Part of the board rectangle that falls into chunk (cx, cy), in chunk-local bits
+    private static long localRect(int cx, int cy, int x, int y, int width, int height) {
+        int left = cx << SHIFT;
+        int top = cy << SHIFT;
+        int x0 = Math.max(x, left) - left;
+        int x1 = Math.min(x + width, left + SIDE) - left;
+        int y0 = Math.max(y, top) - top;
+        int y1 = Math.min(y + height, top + SIDE) - top;
+        return ((1L << x1 - x0) - 1) * ROW_REPEAT[y1 - y0] << (y0 << SHIFT | x0);
+    }
+
+    private Chunk chunkOf(int cell) {
+        return find(chunkKey(cell % size, cell / size));
+    }
+
+    private Chunk find(int key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = i + 1 & mask) {
+            if (keys[i] == key) {
+                return chunks[i];
+            }
+            if (keys[i] == EMPTY_KEY) {
+                return null;
+            }
+        }
+    }
+
+    private Chunk findOrCreate(int key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (; keys[i] != EMPTY_KEY; i = i + 1 & mask) {
+            if (keys[i] == key) {
+                return chunks[i];
+            }
+        }
+        var chunk = new Chunk();
+        keys[i] = key;
+        chunks[i] = chunk;
+        if (++chunkCount * 2 > keys.length) {
+            grow();
+        }
+        return chunk;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldChunks = chunks;
+        keys = new int[oldKeys.length * 2];
+        chunks = new Chunk[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY_KEY);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY_KEY) {
+                int i = slot(oldKeys[j], mask);
+                while (keys[i] != EMPTY_KEY) {
+                    i = i + 1 & mask;
+                }
+                keys[i] = oldKeys[j];
+                chunks[i] = oldChunks[j];
+            }
+        }
+    }
+
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    private static final class Chunk {
+
+        private long ships;
+        private long hits;
+        private long misses;
+        private Ship[] shipAt;
+
+    }
+
+}
@@ -1,27 +1,63 @@
 package com.daba.sb.model.board;
 
 import com.daba.sb.util.BoardUtils;
-import org.apache.commons.lang3.tuple.MutablePair;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 
-public class Dot extends MutablePair<Integer, Integer> {
+@EqualsAndHashCode
+public final class Dot {
 
-    public Dot(Integer left, Integer right) {
-        super(left, right);
+    private static final int COORDINATE_BITS = 16;
+    private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+
+    // Canonical instances for every coordinate of a board up to this side
+    static final int CACHED_SIDE = 64;
+
+    private static final Dot[] CACHE = new Dot[CACHED_SIDE * CACHED_SIDE];
+
+    static {
+        for (int y = 0; y < CACHED_SIDE; y++) {
+            for (int x = 0; x < CACHED_SIDE; x++) {
+                CACHE[y * CACHED_SIDE + x] = new Dot(y << COORDINATE_BITS | x);
+            }
+        }
+    }
+
+    // y in the high half, x in the low half
+    @Getter
+    private final int packed;
+
+    private Dot(int packed) {
+        this.packed = packed;
     }
 
-    public static Dot of(int x,  int y) {
+    public static Dot of(int x, int y) {
         if (x < 0 || y < 0) {
             throw new IllegalArgumentException("Coordinates cannot be negative");
         }
-        return new Dot(x, y);
+        if (x < CACHED_SIDE && y < CACHED_SIDE) {
+            return CACHE[y * CACHED_SIDE + x];
+        }
+        if (x > COORDINATE_MASK || y > COORDINATE_MASK) {
+            throw new IllegalArgumentException("Coordinates cannot exceed " + COORDINATE_MASK);
+        }
+        return new Dot(y << COORDINATE_BITS | x);
+    }
+
+    public static Dot ofPacked(int packed) {
+        return of(packed & COORDINATE_MASK, packed >>> COORDINATE_BITS);
     }
 
     public int getX() {
-        return getLeft();
+        return packed & COORDINATE_MASK;
     }
 
     public int getY() {
-        return getRight();
+        return packed >>> COORDINATE_BITS;
+    }
+
+    public int toCell(int boardSize) {
+        return getY() * boardSize + getX();
     }
 
     @Override
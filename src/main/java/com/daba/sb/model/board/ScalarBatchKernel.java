@@ -0,0 +1,28 @@
+package com.daba.sb.model.board;
+
+final class ScalarBatchKernel extends BatchKernel {
+
+    @Override
+    boolean isVectorized() {
+        return false;
+    }
+
+    @Override
+    void shoot(long[] ships, long[] hits, long[] misses, int words, int boards, long[] shots, long[] codes) {
+        for (int board = 0; board < boards; board++) {
+            shootOne(ships, hits, misses, boards, shots, codes, board);
+        }
+    }
+
+    @Override
+    int countZeros(int[] values, int count) {
+        int zeros = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i] == 0) {
+                zeros++;
+            }
+        }
+        return zeros;
+    }
+
+}
@@ -1,35 +1,34 @@
 package com.daba.sb.model.board;
 
-import com.daba.sb.model.process.StrikeResult;
 import com.daba.sb.model.Alignment;
-import lombok.Data;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.List;
 
-@Data
+// Immutable and compared by identity; how much of it is still afloat is tracked by BoardStats under its id
+@Getter
+@ToString
 public class Ship {
 
-    private int size;
-    private Collection<Dot> dots;
-    private int cellsLeft;
+    private final int id;
+    private final int size;
+    private final Dot base;
+    private final Alignment alignment;
+    @ToString.Exclude
+    private final Collection<Dot> dots;
 
-    public Ship(int size, Dot baseDot, Alignment alignment) {
+    Ship(int id, int size, Dot baseDot, Alignment alignment) {
+        this.id = id;
         this.size = size;
-        this.cellsLeft = size;
-        this.dots = IntStream.range(0, size)
-                .boxed()
-                .map(i -> Dot.of(baseDot.getX() + i * alignment.getXd(), baseDot.getY() + i * alignment.getYd()))
-                .collect(Collectors.toList());
-    }
-
-    public StrikeResult strike() {
-        if (--cellsLeft > 0) {
-            return StrikeResult.WOUND;
-        } else {
-            return StrikeResult.KILLED;
+        this.base = baseDot;
+        this.alignment = alignment;
+        var shipDots = new Dot[size];
+        for (int i = 0; i < size; i++) {
+            shipDots[i] = Dot.of(baseDot.getX() + i * alignment.getXd(), baseDot.getY() + i * alignment.getYd());
         }
+        this.dots = List.of(shipDots);
     }
 
 }
@@ -0,0 +1,131 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.Alignment;
+
+// Boards of up to 64 cells: every plane is a single long
+final class SmallBitboard extends Bitboard {
+
+    // rowRepeat[h] has the lowest bit of each of the first h rows set
+    private final long[] rowRepeat;
+
+    private final long[] shipMasks;
+    private final long[] haloMasks;
+
+    private long ships;
+    private long hits;
+    private long misses;
+
+    private final Ship[] shipAt;
+
+    SmallBitboard(BoardGeometry geometry) {
+        super(geometry);
+        this.shipAt = new Ship[size * size];
+        this.shipMasks = geometry.getShipMasks();
+        this.haloMasks = geometry.getHaloMasks();
+        this.rowRepeat = new long[size + 1];
+        for (int h = 1; h <= size; h++) {
+            rowRepeat[h] = rowRepeat[h - 1] | 1L << (h - 1) * size;
+        }
+    }
+
+    @Override
+    boolean isShip(int cell) {
+        return (ships & 1L << cell) != 0;
+    }
+
+    @Override
+    boolean isHit(int cell) {
+        return (hits & 1L << cell) != 0;
+    }
+
+    @Override
+    boolean isMiss(int cell) {
+        return (misses & 1L << cell) != 0;
+    }
+
+    @Override
+    Ship shipAt(int cell) {
+        return shipAt[cell];
+    }
+
+    @Override
+    void putShip(int cell, Ship ship) {
+        shipAt[cell] = ship;
+    }
+
+    @Override
+    long hitWord(int word) {
+        return hits;
+    }
+
+    @Override
+    long missWord(int word) {
+        return misses;
+    }
+
+    @Override
+    void setHit(int cell) {
+        hits |= 1L << cell;
+    }
+
+    @Override
+    void setMiss(int cell) {
+        misses |= 1L << cell;
+    }
+
+    @Override
+    void clearHit(int cell) {
+        hits &= ~(1L << cell);
+    }
+
+    @Override
+    void clearMiss(int cell) {
+        misses &= ~(1L << cell);
+    }
+
+    @Override
+    void addShip(int x, int y, int length, Alignment alignment) {
+        ships |= shipMasks[geometry.maskOffset(length, alignment, geometry.cell(x, y))];
+    }
+
+    @Override
+    void removeShip(int x, int y, int length, Alignment alignment) {
+        ships &= ~shipMasks[geometry.maskOffset(length, alignment, geometry.cell(x, y))];
+    }
+
+    @Override
+    boolean isOccupiedAround(int x, int y, int length, Alignment alignment) {
+        return ((ships | misses) & haloMasks[geometry.maskOffset(length, alignment, geometry.cell(x, y))]) != 0;
+    }
+
+    @Override
+    void missAround(int x, int y, int length, Alignment alignment) {
+        misses |= haloMasks[geometry.maskOffset(length, alignment, geometry.cell(x, y))] & ~ships;
+    }
+
+    @Override
+    void addShips(int x, int y, int width, int height) {
+        ships |= rect(x, y, width, height);
+    }
+
+    @Override
+    void removeShips(int x, int y, int width, int height) {
+        ships &= ~rect(x, y, width, height);
+    }
+
+    @Override
+    boolean isOccupied(int x, int y, int width, int height) {
+        return ((ships | misses) & rect(x, y, width, height)) != 0;
+    }
+
+    @Override
+    void markMissed(int x, int y, int width, int height) {
+        misses |= rect(x, y, width, height) & ~ships;
+    }
+
+    private long rect(int x, int y, int width, int height) {
+        // A run of width bits replicated over height rows; width <= size, so the product never carries
+        return ((1L << width) - 1) * rowRepeat[height] << y * size + x;
+    }
+
+}
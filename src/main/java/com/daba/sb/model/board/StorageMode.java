@@ -0,0 +1,16 @@
+package com.daba.sb.model.board;
+
+public enum StorageMode {
+
+    // Whole-board bit planes, size^2 bits per plane
+    DENSE,
+    // 8x8 chunks allocated on first write, memory follows ships and shots rather than size^2
+    SPARSE;
+
+    private static final int DENSE_SIZE_LIMIT = 64;
+
+    public static StorageMode forSize(int size) {
+        return size <= DENSE_SIZE_LIMIT ? DENSE : SPARSE;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.daba.sb.model.board;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// One board per lane, the same arithmetic as the scalar kernel. Planes are word-major, so the lanes of a vector read
+// neighbouring longs and no gather or scatter is needed: a lane takes the word its cell is in with a blend, and every
+// word is written back with only that lane's bit added. Boards left over after the last full vector go through
+// the scalar code
+final class VectorBatchKernel extends BatchKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    void shoot(long[] ships, long[] hits, long[] misses, int words, int boards, long[] shots, long[] codes) {
+        var zero = LongVector.zero(LONGS);
+        var one = LongVector.broadcast(LONGS, 1L);
+        int board = 0;
+        for (int end = LONGS.loopBound(boards); board < end; board += LONGS.length()) {
+            var shot = LongVector.fromArray(LONGS, shots, board);
+            var on = shot.compare(VectorOperators.GE, 0);
+            var word = shot.lanewise(VectorOperators.LSHR, 6);
+            var hit = zero;
+            var missed = zero;
+            var ship = zero;
+            for (int w = 0; w < words; w++) {
+                var here = word.compare(VectorOperators.EQ, w);
+                hit = hit.blend(LongVector.fromArray(LONGS, hits, w * boards + board), here);
+                missed = missed.blend(LongVector.fromArray(LONGS, misses, w * boards + board), here);
+                ship = ship.blend(LongVector.fromArray(LONGS, ships, w * boards + board), here);
+            }
+            var bit = one.lanewise(VectorOperators.LSHL, shot);
+            var fresh = on.andNot(hit.or(missed).and(bit).compare(VectorOperators.NE, 0));
+            var onShip = ship.and(bit).compare(VectorOperators.NE, 0);
+            var hitBit = zero.blend(bit, fresh.and(onShip));
+            var missBit = zero.blend(bit, fresh.andNot(onShip));
+            for (int w = 0; w < words; w++) {
+                var here = word.compare(VectorOperators.EQ, w);
+                int at = w * boards + board;
+                LongVector.fromArray(LONGS, hits, at).or(zero.blend(hitBit, here)).intoArray(hits, at);
+                LongVector.fromArray(LONGS, misses, at).or(zero.blend(missBit, here)).intoArray(misses, at);
+            }
+            LongVector.broadcast(LONGS, DO_AGAIN)
+                    .blend(HIT, fresh.and(onShip))
+                    .blend(MISS, fresh.andNot(onShip))
+                    .blend(SKIPPED, on.not())
+                    .intoArray(codes, board);
+        }
+        for (; board < boards; board++) {
+            shootOne(ships, hits, misses, boards, shots, codes, board);
+        }
+    }
+
+    @Override
+    int countZeros(int[] values, int count) {
+        int zeros = 0;
+        int i = 0;
+        for (int end = INTS.loopBound(count); i < end; i += INTS.length()) {
+            zeros += IntVector.fromArray(INTS, values, i).compare(VectorOperators.EQ, 0).trueCount();
+        }
+        for (; i < count; i++) {
+            if (values[i] == 0) {
+                zeros++;
+            }
+        }
+        return zeros;
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.Alignment;
+
+// Dense boards of more than 64 cells: every plane is a long[] over the whole board
+final class WideBitboard extends Bitboard {
+
+    private final int words;
+
+    // Null when the geometry is too large for mask tables
+    private final long[] shipMasks;
+    private final long[] haloMasks;
+
+    private final long[] ships;
+    private final long[] hits;
+    private final long[] misses;
+
+    private final Ship[] shipAt;
+
+    WideBitboard(BoardGeometry geometry) {
+        super(geometry);
+        this.words = geometry.getWords();
+        this.shipMasks = geometry.getShipMasks();
+        this.haloMasks = geometry.getHaloMasks();
+        this.ships = new long[words];
+        this.hits = new long[words];
+        this.misses = new long[words];
+        this.shipAt = new Ship[size * size];
+    }
+
+    @Override
+    boolean isShip(int cell) {
+        return get(ships, cell);
+    }
+
+    @Override
+    boolean isHit(int cell) {
+        return get(hits, cell);
+    }
+
+    @Override
+    boolean isMiss(int cell) {
+        return get(misses, cell);
+    }
+
+    @Override
+    Ship shipAt(int cell) {
+        return shipAt[cell];
+    }
+
+    @Override
+    void putShip(int cell, Ship ship) {
+        shipAt[cell] = ship;
+    }
+
+    @Override
+    long hitWord(int word) {
+        return hits[word];
+    }
+
+    @Override
+    long missWord(int word) {
+        return misses[word];
+    }
+
+    @Override
+    void setHit(int cell) {
+        hits[cell >>> 6] |= 1L << cell;
+    }
+
+    @Override
+    void setMiss(int cell) {
+        misses[cell >>> 6] |= 1L << cell;
+    }
+
+    @Override
+    void clearHit(int cell) {
+        hits[cell >>> 6] &= ~(1L << cell);
+    }
+
+    @Override
+    void clearMiss(int cell) {
+        misses[cell >>> 6] &= ~(1L << cell);
+    }
+
+    @Override
+    void addShip(int x, int y, int length, Alignment alignment) {
+        if (shipMasks == null) {
+            super.addShip(x, y, length, alignment);
+            return;
+        }
+        int offset = geometry.maskOffset(length, alignment, geometry.cell(x, y));
+        for (int w = 0; w < words; w++) {
+            ships[w] |= shipMasks[offset + w];
+        }
+    }
+
+    @Override
+    void removeShip(int x, int y, int length, Alignment alignment) {
+        if (shipMasks == null) {
+            super.removeShip(x, y, length, alignment);
+            return;
+        }
+        int offset = geometry.maskOffset(length, alignment, geometry.cell(x, y));
+        for (int w = 0; w < words; w++) {
+            ships[w] &= ~shipMasks[offset + w];
+        }
+    }
+
+    @Override
+    boolean isOccupiedAround(int x, int y, int length, Alignment alignment) {
+        if (haloMasks == null) {
+            return super.isOccupiedAround(x, y, length, alignment);
+        }
+        int offset = geometry.maskOffset(length, alignment, geometry.cell(x, y));
+        for (int w = 0; w < words; w++) {
+            if (((ships[w] | misses[w]) & haloMasks[offset + w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void missAround(int x, int y, int length, Alignment alignment) {
+        if (haloMasks == null) {
+            super.missAround(x, y, length, alignment);
+            return;
+        }
+        int offset = geometry.maskOffset(length, alignment, geometry.cell(x, y));
+        for (int w = 0; w < words; w++) {
+            misses[w] |= haloMasks[offset + w] & ~ships[w];
+        }
+    }
+
+    @Override
+    void addShips(int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            int from = row * size + x;
+            int to = from + width;
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                ships[w] |= runMask(w, from, to);
+            }
+        }
+    }
+
+    @Override
+    void removeShips(int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            int from = row * size + x;
+            int to = from + width;
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                ships[w] &= ~runMask(w, from, to);
+            }
+        }
+    }
+
+    @Override
+    boolean isOccupied(int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            int from = row * size + x;
+            int to = from + width;
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                if (((ships[w] | misses[w]) & runMask(w, from, to)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void markMissed(int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            int from = row * size + x;
+            int to = from + width;
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                misses[w] |= runMask(w, from, to) & ~ships[w];
+            }
+        }
+    }
+
+    private static boolean get(long[] plane, int cell) {
+        return (plane[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    // Bits of word w that fall into the cell run [from, to)
+    private static long runMask(int w, int from, int to) {
+        long mask = -1L;
+        if (w == from >>> 6) {
+            mask &= -1L << from;
+        }
+        if (w == (to - 1) >>> 6) {
+            mask &= -1L >>> -to;
+        }
+        return mask;
+    }
+
+}
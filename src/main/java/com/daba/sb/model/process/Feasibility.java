@@ -0,0 +1,16 @@
+package com.daba.sb.model.process;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public enum Feasibility {
+
+    FEASIBLE("Feasible"),
+    INFEASIBLE("Infeasible"),
+    UNDECIDED("Undecided");
+
+    @Getter
+    private final String name;
+
+}
@@ -0,0 +1,36 @@
+package com.daba.sb.model.process;
+
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.BoardStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GameResult {
+
+    private Player first;
+    private Player second;
+    private Player winner;
+
+    // Strikes that changed the board; rejected DO_AGAIN strikes are not counted
+    private int firstShots;
+    private int secondShots;
+
+    public boolean isFirstWon() {
+        return winner == first;
+    }
+
+    public int getWinnerShots() {
+        return isFirstWon() ? firstShots : secondShots;
+    }
+
+    public BoardStats getFirstBoardStats() {
+        return first.getBoard().getStats();
+    }
+
+    public BoardStats getSecondBoardStats() {
+        return second.getBoard().getStats();
+    }
+
+}
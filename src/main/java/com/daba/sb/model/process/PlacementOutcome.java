@@ -0,0 +1,16 @@
+package com.daba.sb.model.process;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public enum PlacementOutcome {
+
+    PLACED("Placed"),
+    IMPOSSIBLE("Impossible"),
+    ABANDONED("Abandoned");
+
+    @Getter
+    private final String name;
+
+}
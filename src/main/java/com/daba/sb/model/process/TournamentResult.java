@@ -0,0 +1,59 @@
+package com.daba.sb.model.process;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class TournamentResult {
+
+    private int games;
+
+    private int firstStrategyWins;
+    private int secondStrategyWins;
+
+    // All shots fired by each strategy, and the shots it needed in the games it won
+    private long firstStrategyShots;
+    private long secondStrategyShots;
+    private long firstStrategyWinningShots;
+    private long secondStrategyWinningShots;
+
+    public void add(GameResult result, boolean firstStrategyStarted) {
+        games++;
+        int firstStrategyGameShots = firstStrategyStarted ? result.getFirstShots() : result.getSecondShots();
+        int secondStrategyGameShots = firstStrategyStarted ? result.getSecondShots() : result.getFirstShots();
+        firstStrategyShots += firstStrategyGameShots;
+        secondStrategyShots += secondStrategyGameShots;
+        if (result.isFirstWon() == firstStrategyStarted) {
+            firstStrategyWins++;
+            firstStrategyWinningShots += firstStrategyGameShots;
+        } else {
+            secondStrategyWins++;
+            secondStrategyWinningShots += secondStrategyGameShots;
+        }
+    }
+
+    public TournamentResult merge(TournamentResult other) {
+        games += other.games;
+        firstStrategyWins += other.firstStrategyWins;
+        secondStrategyWins += other.secondStrategyWins;
+        firstStrategyShots += other.firstStrategyShots;
+        secondStrategyShots += other.secondStrategyShots;
+        firstStrategyWinningShots += other.firstStrategyWinningShots;
+        secondStrategyWinningShots += other.secondStrategyWinningShots;
+        return this;
+    }
+
+    public double getFirstStrategyWinRate() {
+        return games == 0 ? 0 : (double) firstStrategyWins / games;
+    }
+
+    public double getFirstStrategyAverageShotsToWin() {
+        return firstStrategyWins == 0 ? 0 : (double) firstStrategyWinningShots / firstStrategyWins;
+    }
+
+    public double getSecondStrategyAverageShotsToWin() {
+        return secondStrategyWins == 0 ? 0 : (double) secondStrategyWinningShots / secondStrategyWins;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.daba.sb.process;
+
+import com.daba.sb.Dialogue;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.view.BoardRenderer;
+import lombok.RequiredArgsConstructor;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class DialogueStepListener implements StepListener {
+
+    private final Dialogue dialogue;
+
+    // Boards are redrawn before every move, so each keeps its renderer and only changed rows are rebuilt
+    private final Map<Board, BoardRenderer> ownRenderers = new IdentityHashMap<>();
+    private final Map<Board, BoardRenderer> opponentRenderers = new IdentityHashMap<>();
+
+    @Override
+    public void gameStarted(Player first) {
+        dialogue.say("Player {}, you start the game. Your board is:", first.getName());
+        ownRenderers.computeIfAbsent(first.getBoard(), b -> new BoardRenderer(b, true)).draw(dialogue);
+    }
+
+    @Override
+    public void turnStarted(Player player) {
+        if (player.isHuman()) {
+            dialogue.say("Player {}, opponent made his moves. Here's your board: ", player.getName());
+            ownRenderers.computeIfAbsent(player.getBoard(), b -> new BoardRenderer(b, true)).draw(dialogue);
+        } else {
+            dialogue.say("AI player {} makes a move", player.getName());
+        }
+    }
+
+    @Override
+    public void moveRequested(Player player, Player opponent) {
+        if (player.isHuman()) {
+            dialogue.say("Player {}, make a move. Here's opponent's board", player.getName());
+            opponentRenderers.computeIfAbsent(opponent.getBoard(), b -> new BoardRenderer(b, false)).draw(dialogue);
+        }
+    }
+
+    @Override
+    public void moveRejected(Player player) {
+        dialogue.say("This move makes no sense. Try striking cells that aren't picked yet");
+    }
+
+    @Override
+    public void strikeAnnounced(Player player, StrikeResult result) {
+        dialogue.say(result.getMessage());
+        if (result.isChangingMove()) {
+            if (player.isHuman()) {
+                dialogue.say("Make another move, player {}", player.getName());
+            } else {
+                dialogue.say("AI player {} stroke successfully and will make one more move", player.getName());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.daba.sb.process;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.process.Feasibility;
+import com.daba.sb.model.process.PlacementOutcome;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Decides exactly whether a fleet fits on a board under the no-touch rule.
+ * A ship grown by its right and bottom halo is an (L+1) x 2 block, and ships do not touch exactly when
+ * their blocks do not overlap on a board one cell larger. The blocks are packed cell by cell in row order,
+ * with failed states memoized; identical ships are counted rather than told apart, and transposition lets
+ * the block covering the top-left corner be horizontal. Verdicts are cached per board size and fleet.
+ */
+@Slf4j
+public class FleetFeasibility {
+
+    public static final String CACHE_FILE_PROPERTY = "sb.feasibility.cache";
+
+    // A quick placement settles most roomy fleets before the exact search starts
+    private static final long WITNESS_NODE_LIMIT = 20_000;
+    // The witness search starts from the same orders every time, so a fleet is decided alike in every run
+    private static final long WITNESS_SEED = 0x51DE_F1EE7L;
+
+    private static final long SEARCH_NODE_LIMIT = 50_000_000;
+
+    private static final int FAILED_STATES_LIMIT = 1 << 20;
+
+    private static final String CACHE_SEPARATOR = ";";
+
+    private static final Map<String, Feasibility> CACHE = new ConcurrentHashMap<>();
+
+    private static volatile Path cacheFile;
+
+    static {
+        var file = System.getProperty(CACHE_FILE_PROPERTY);
+        if (file != null && !file.isBlank()) {
+            persistTo(Path.of(file));
+        }
+    }
+
+    private final int side;
+    private final int[] lengths;
+    private final int[] remaining;
+    private final int window;
+    private final BitSet grid;
+    private int shipsLeft;
+    private final Set<State> failed = new HashSet<>();
+    private long nodes;
+    private boolean undecided;
+
+    private FleetFeasibility(int boardSize, int[] lengths, int[] counts) {
+        this.side = boardSize + 1;
+        this.lengths = lengths;
+        this.remaining = counts.clone();
+        this.window = side * (lengths[0] + 1);
+        this.grid = new BitSet(side * side);
+        this.shipsLeft = Arrays.stream(counts).sum();
+    }
+
+    public static Feasibility check(int boardSize, List<ShipConfig> shipConfigs) {
+        var fleet = canonical(shipConfigs);
+        if (fleet.isEmpty()) {
+            return Feasibility.FEASIBLE;
+        }
+        var key = boardSize + CACHE_SEPARATOR + ShipConfig.fleetKey(shipConfigs);
+        var cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        var verdict = decide(boardSize, fleet);
+        if (verdict != Feasibility.UNDECIDED && CACHE.putIfAbsent(key, verdict) == null) {
+            append(key, verdict);
+        }
+        return verdict;
+    }
+
+    public static boolean isFeasible(int boardSize, List<ShipConfig> shipConfigs) {
+        return check(boardSize, shipConfigs) != Feasibility.INFEASIBLE;
+    }
+
+    // Loads verdicts kept in the file and appends every new one to it
+    public static synchronized void persistTo(Path file) {
+        if (Files.exists(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    int at = line.lastIndexOf(CACHE_SEPARATOR);
+                    if (at > 0) {
+                        CACHE.put(line.substring(0, at), Feasibility.valueOf(line.substring(at + 1)));
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Feasibility cache {} cannot be read, starting with an empty one", file, e);
+            }
+        }
+        cacheFile = file;
+    }
+
+    private static Feasibility decide(int boardSize, TreeMap<Integer, Integer> fleet) {
+        var configs = fleet.entrySet().stream()
+                .map(e -> new ShipConfig(e.getValue(), e.getKey()))
+                .collect(Collectors.toList());
+        if (fleet.lastKey() > boardSize || FleetPlacer.exceedsArea(boardSize, configs)) {
+            return Feasibility.INFEASIBLE;
+        }
+        var witness = FleetPlacer.place(new Board(boardSize), configs, WITNESS_NODE_LIMIT, new SplittableRandom(WITNESS_SEED));
+        if (witness != PlacementOutcome.ABANDONED) {
+            return witness == PlacementOutcome.PLACED ? Feasibility.FEASIBLE : Feasibility.INFEASIBLE;
+        }
+        int[] lengths = fleet.descendingKeySet().stream().mapToInt(Integer::intValue).toArray();
+        int[] counts = fleet.descendingMap().values().stream().mapToInt(Integer::intValue).toArray();
+        long slack = (long) (boardSize + 1) * (boardSize + 1);
+        for (int i = 0; i < lengths.length; i++) {
+            slack -= 2L * (lengths[i] + 1) * counts[i];
+        }
+        var search = new FleetFeasibility(boardSize, lengths, counts);
+        if (search.pack(0, slack)) {
+            return Feasibility.FEASIBLE;
+        }
+        return search.undecided ? Feasibility.UNDECIDED : Feasibility.INFEASIBLE;
+    }
+
+    private boolean pack(int from, long slack) {
+        int cursor = grid.nextClearBit(from);
+        if (shipsLeft == 0) {
+            return true;
+        }
+        if (cursor >= side * side) {
+            return false;
+        }
+        if (++nodes > SEARCH_NODE_LIMIT) {
+            undecided = true;
+            return false;
+        }
+        var state = new State(cursor, grid.get(cursor, cursor + window).toLongArray(), remaining.clone());
+        if (failed.contains(state)) {
+            return false;
+        }
+        int x = cursor % side;
+        int y = cursor / side;
+        for (int i = 0; i < lengths.length; i++) {
+            if (remaining[i] == 0) {
+                continue;
+            }
+            int block = lengths[i] + 1;
+            if (tryBlock(i, x, y, block, 2, slack)) {
+                return true;
+            }
+            // A single-cell ship is a square block, and at the corner transposition makes vertical redundant
+            if (block > 2 && cursor > 0 && tryBlock(i, x, y, 2, block, slack)) {
+                return true;
+            }
+            if (undecided) {
+                return false;
+            }
+        }
+        if (slack > 0) {
+            grid.set(cursor);
+            boolean packed = pack(cursor + 1, slack - 1);
+            grid.clear(cursor);
+            if (packed) {
+                return true;
+            }
+        }
+        if (!undecided && failed.size() < FAILED_STATES_LIMIT) {
+            failed.add(state);
+        }
+        return false;
+    }
+
+    private boolean tryBlock(int ship, int x, int y, int width, int height, long slack) {
+        if (x + width > side || y + height > side) {
+            return false;
+        }
+        for (int row = y; row < y + height; row++) {
+            int start = row * side + x;
+            int taken = grid.nextSetBit(start);
+            if (taken >= 0 && taken < start + width) {
+                return false;
+            }
+        }
+        setBlock(x, y, width, height, true);
+        remaining[ship]--;
+        shipsLeft--;
+        boolean packed = pack(y * side + x + width, slack);
+        shipsLeft++;
+        remaining[ship]++;
+        setBlock(x, y, width, height, false);
+        return packed;
+    }
+
+    private void setBlock(int x, int y, int width, int height, boolean value) {
+        for (int row = y; row < y + height; row++) {
+            grid.set(row * side + x, row * side + x + width, value);
+        }
+    }
+
+    // Sizes mapped to counts, so reordered or split configs of the same fleet share a cache entry
+    private static TreeMap<Integer, Integer> canonical(List<ShipConfig> shipConfigs) {
+        var fleet = new TreeMap<Integer, Integer>();
+        for (ShipConfig shipConfig : shipConfigs) {
+            if (shipConfig.getCount() > 0) {
+                fleet.merge(shipConfig.getSize(), shipConfig.getCount(), Integer::sum);
+            }
+        }
+        return fleet;
+    }
+
+    private static void append(String key, Feasibility verdict) {
+        var file = cacheFile;
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.writeString(file, key + CACHE_SEPARATOR + verdict.name() + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Feasibility cache " + file + " cannot be written", e);
+        }
+    }
+
+    private static final class State {
+
+        private final int cursor;
+        private final long[] window;
+        private final int[] remaining;
+        private final int hash;
+
+        State(int cursor, long[] window, int[] remaining) {
+            this.cursor = cursor;
+            this.window = window;
+            this.remaining = remaining;
+            this.hash = 31 * (31 * cursor + Arrays.hashCode(window)) + Arrays.hashCode(remaining);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            var other = (State) o;
+            return cursor == other.cursor && Arrays.equals(window, other.window) && Arrays.equals(remaining, other.remaining);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
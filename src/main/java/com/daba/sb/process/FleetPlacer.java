@@ -0,0 +1,204 @@
+package com.daba.sb.process;
+
+import com.daba.sb.metrics.Metrics;
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.process.PlacementOutcome;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Places a fleet by depth-first search over the legal positions of each ship, largest ships first.
+ * Positions are tried in random order, dead ends are undone on the board and the next position is tried.
+ * Running out of positions everywhere proves the fleet does not fit; the node limit bounds the running time.
+ * Searches restart with fresh orders and doubled budgets, so one unlucky early choice cannot eat the whole limit.
+ */
+public class FleetPlacer {
+
+    public static final long DEFAULT_NODE_LIMIT = 2_000_000;
+
+    private static final long FIRST_RESTART_NODES = 1_000;
+
+    // Position lists up to this length are shuffled outright, longer ones are walked in an affine order
+    private static final int SHUFFLE_LIMIT = 1 << 16;
+
+    private final Board board;
+    private final int size;
+    private final int[] lengths;
+    private final Order[] orders;
+    private final long nodeLimit;
+    private long nodes;
+    private boolean abandoned;
+
+    private FleetPlacer(Board board, List<ShipConfig> shipConfigs, long nodeLimit, RandomGenerator random) {
+        this.board = board;
+        this.size = board.getSize();
+        this.lengths = shipConfigs.stream()
+                .flatMapToInt(c -> IntStream.generate(c::getSize).limit(c.getCount()))
+                .boxed()
+                .sorted((a, b) -> b - a)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.orders = new Order[lengths.length];
+        this.nodeLimit = nodeLimit;
+        for (int i = 0; i < lengths.length; i++) {
+            // Ships of one length share an order and take ascending ranks in it, so no layout is visited twice
+            orders[i] = i > 0 && lengths[i] == lengths[i - 1] ? orders[i - 1] : new Order(positions(lengths[i]), random);
+        }
+    }
+
+    // The same seeded generator state gives the same layout
+    public static PlacementOutcome place(Board board, List<ShipConfig> shipConfigs, RandomGenerator random) {
+        return place(board, shipConfigs, DEFAULT_NODE_LIMIT, random);
+    }
+
+    // Leaves the board as it was unless the outcome is PLACED
+    public static PlacementOutcome place(Board board, List<ShipConfig> shipConfigs, long nodeLimit, RandomGenerator random) {
+        if (exceedsArea(board.getSize(), shipConfigs)) {
+            Metrics.GAME.placed(PlacementOutcome.IMPOSSIBLE, 0, 0);
+            return PlacementOutcome.IMPOSSIBLE;
+        }
+        long started = System.nanoTime();
+        long left = nodeLimit;
+        long budget = FIRST_RESTART_NODES;
+        int attempts = 0;
+        var outcome = PlacementOutcome.ABANDONED;
+        while (left > 0) {
+            var placer = new FleetPlacer(board, shipConfigs, Math.min(budget, left), random);
+            attempts++;
+            boolean placed = placer.search(0, 0, placer.first(0));
+            left -= placer.nodes;
+            if (placed || !placer.abandoned) {
+                outcome = placed ? PlacementOutcome.PLACED : PlacementOutcome.IMPOSSIBLE;
+                break;
+            }
+            budget *= 2;
+        }
+        Metrics.GAME.placed(outcome, attempts, nodeLimit - left);
+        Metrics.PLACEMENT.record(System.nanoTime() - started);
+        return outcome;
+    }
+
+    // A ship grown by its right and bottom halo is an (L+1) x 2 block; such blocks never overlap on a board one cell larger
+    static boolean exceedsArea(int size, List<ShipConfig> shipConfigs) {
+        long area = 0;
+        for (ShipConfig shipConfig : shipConfigs) {
+            area += 2L * (shipConfig.getSize() + 1) * shipConfig.getCount();
+        }
+        return area > (long) (size + 1) * (size + 1);
+    }
+
+    private boolean search(int depth, long fromRank, long fromPosition) {
+        if (depth == lengths.length) {
+            return true;
+        }
+        var order = orders[depth];
+        int length = lengths[depth];
+        long position = fromPosition;
+        for (long rank = fromRank; rank < order.count; rank++) {
+            if (rank > fromRank) {
+                position = order.next(rank - 1, position);
+            }
+            if (++nodes > nodeLimit) {
+                abandoned = true;
+                return false;
+            }
+            if (!tryPlace(length, position)) {
+                continue;
+            }
+            boolean placed;
+            if (depth + 1 < lengths.length && orders[depth + 1] == order) {
+                placed = rank + 1 < order.count && search(depth + 1, rank + 1, order.next(rank, position));
+            } else {
+                placed = search(depth + 1, 0, first(depth + 1));
+            }
+            if (placed) {
+                return true;
+            }
+            board.undoPlacement();
+            if (abandoned) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private long first(int depth) {
+        return depth < orders.length ? orders[depth].first() : 0;
+    }
+
+    private long positions(int length) {
+        long span = size - length + 1;
+        if (span <= 0) {
+            return 0;
+        }
+        // A single-cell ship looks the same either way, so it only gets horizontal positions
+        return length == 1 ? (long) size * size : 2L * size * span;
+    }
+
+    // Horizontal positions come first, row by row, then vertical ones
+    private boolean tryPlace(int length, long position) {
+        long span = size - length + 1;
+        long horizontal = size * span;
+        if (position < horizontal) {
+            return board.placeShip(length, (int) (position % span), (int) (position / span), Alignment.HORIZONTAL);
+        }
+        position -= horizontal;
+        return board.placeShip(length, (int) (position % size), (int) (position / size), Alignment.VERTICAL);
+    }
+
+    private static class Order {
+
+        private final long count;
+        private final int[] shuffled;
+        private final long start;
+        private final long stride;
+
+        Order(long count, RandomGenerator random) {
+            this.count = count;
+            if (count <= SHUFFLE_LIMIT) {
+                shuffled = new int[(int) count];
+                for (int i = 0; i < shuffled.length; i++) {
+                    int j = random.nextInt(i + 1);
+                    shuffled[i] = shuffled[j];
+                    shuffled[j] = i;
+                }
+                start = 0;
+                stride = 0;
+            } else {
+                shuffled = null;
+                start = random.nextLong(count);
+                long s;
+                do {
+                    s = random.nextLong(1, count);
+                } while (gcd(s, count) != 1);
+                stride = s;
+            }
+        }
+
+        long first() {
+            if (count == 0) {
+                return 0;
+            }
+            return shuffled != null ? shuffled[0] : start;
+        }
+
+        long next(long rank, long position) {
+            return shuffled != null ? shuffled[(int) rank + 1] : (position + stride) % count;
+        }
+
+        private static long gcd(long a, long b) {
+            while (b != 0) {
+                long t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.daba.sb.process;
 
-import com.daba.sb.process.move.impl.AiMove;
+import com.daba.sb.journal.JournalStepListener;
+import com.daba.sb.journal.MoveJournal;
+import com.daba.sb.process.move.impl.MonteCarloMove;
 import com.daba.sb.model.board.Board;
 import com.daba.sb.Dialogue;
 import com.daba.sb.model.GameContext;
@@ -10,11 +12,16 @@ import com.daba.sb.process.move.impl.HumanMove;
 import com.daba.sb.model.Player;
 import com.daba.sb.model.ShipConfig;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public class Game {
 
-    private final StepMachine stepMachine;
+    // Directory that every game is journaled to, one file per game; games are not recorded without it
+    public static final String JOURNAL_DIR_PROPERTY = "sb.journal.dir";
+
+    private final StepListener stepListener;
 
     private final Dialogue dialogue;
 
@@ -22,13 +29,26 @@ public class Game {
 
     private final ShipsOperations shipsOperations;
 
+    // Every random choice of the game, placements and AI moves alike, comes from generators split off this one
+    private final SplittableRandom random;
+
+    // The console game, where quitting ends the application
     public Game() {
-        this.stepMachine = new StepMachine();
-        this.dialogue = Dialogue.join();
-        this.shipsOperations = new ShipsOperations();
-        this.context = GameContext.getInstance();
+        this(Dialogue.join(), () -> System.exit(0));
+    }
+
+    public Game(Dialogue dialogue, Runnable quit) {
+        this(dialogue, quit, new SplittableRandom());
+    }
 
-        GlobalCommandsAssist.registerGlobalCommands(context);
+    public Game(Dialogue dialogue, Runnable quit, SplittableRandom random) {
+        this.dialogue = dialogue;
+        this.context = new GameContext();
+        this.stepListener = new DialogueStepListener(dialogue);
+        this.random = random;
+        this.shipsOperations = new ShipsOperations(dialogue, context, random);
+
+        GlobalCommandsAssist.registerGlobalCommands(dialogue, context, quit);
     }
 
     public void play() {
@@ -41,8 +61,8 @@ public class Game {
             return;
         }
 
-        var first = introducePlayer(boardSize);
-        var second = introducePlayer(boardSize);
+        var first = introducePlayer(boardSize, shipConfigs);
+        var second = introducePlayer(boardSize, shipConfigs);
 
         if (!shipsOperations.placeShips(first, shipConfigs) || !shipsOperations.placeShips(second, shipConfigs)) {
             dialogue.say("Something went wrong with ship placement. " +
@@ -51,28 +71,46 @@ public class Game {
         }
 
         context.setStage(GameStage.GAME);
-        boolean firstStep = true;
-        while (true) {
-            var stepResult = stepMachine.cycleSteps(first, second, firstStep);
-            firstStep = false;
-            if (stepResult.isGameOver()) {
-                dialogue.say("Game over! {} has won", stepResult.getWinner().getName());
-                GlobalCommandsAssist.drawPlayersBoard(dialogue);
-                GlobalCommandsAssist.drawOpponentsBoard(dialogue);
-                GlobalCommandsAssist.reportSituation(dialogue);
-                return;
+        var journal = openJournal();
+        try {
+            var stepMachine = new StepMachine(context, journal == null
+                    ? stepListener
+                    : StepListener.of(stepListener, new JournalStepListener(journal, first, second)));
+            boolean firstStep = true;
+            while (true) {
+                var stepResult = stepMachine.cycleSteps(first, second, firstStep);
+                firstStep = false;
+                if (stepResult.isGameOver()) {
+                    dialogue.say("Game over! {} has won", stepResult.getWinner().getName());
+                    GlobalCommandsAssist.drawPlayersBoard(dialogue, context);
+                    GlobalCommandsAssist.drawOpponentsBoard(dialogue, context);
+                    GlobalCommandsAssist.reportSituation(dialogue, context);
+                    return;
+                }
+            }
+        } finally {
+            if (journal != null) {
+                journal.close();
             }
         }
     }
 
+    private static MoveJournal openJournal() {
+        var directory = System.getProperty(JOURNAL_DIR_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        return MoveJournal.create(Path.of(directory, "game-" + System.currentTimeMillis() + "-" + System.nanoTime() + ".sbj"));
+    }
+
     private int queryBoardSize() {
         return dialogue.readPositiveNumber("Enter board size: ");
     }
 
-    private Player introducePlayer(int boardSize) {
+    private Player introducePlayer(int boardSize, List<ShipConfig> shipConfigs) {
         var name = dialogue.readString("Enter player name: ");
         var isHuman = dialogue.readYesNo("Is it a human player? Otherwise it will be an AI player");
-        return new Player(name, new Board(boardSize), isHuman, isHuman ? new HumanMove() : new AiMove());
+        return new Player(name, new Board(boardSize), isHuman, isHuman ? new HumanMove(dialogue) : new MonteCarloMove(dialogue, shipConfigs, random.split()));
     }
 
 }
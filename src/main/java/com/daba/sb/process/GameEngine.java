@@ -0,0 +1,111 @@
+package com.daba.sb.process;
+
+import com.daba.sb.journal.JournalStepListener;
+import com.daba.sb.journal.MoveJournal;
+import com.daba.sb.model.GameContext;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.process.Feasibility;
+import com.daba.sb.model.process.GameResult;
+import com.daba.sb.model.process.GameStage;
+import com.daba.sb.model.process.PlacementOutcome;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.move.Move;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Plays complete games between two strategies with the interactive turn rules, but without console, drawing or pauses
+public class GameEngine {
+
+    // A strategy that keeps striking longer than this without winning is considered stuck
+    private static final int STRIKES_PER_CELL_LIMIT = 4;
+
+    @Getter
+    private final int boardSize;
+    @Getter
+    private final List<ShipConfig> shipConfigs;
+
+    public GameEngine(int boardSize, List<ShipConfig> shipConfigs) {
+        if (shipConfigs == null || shipConfigs.isEmpty()) {
+            throw new IllegalArgumentException("Game cannot be played without ships");
+        }
+        if (FleetFeasibility.check(boardSize, shipConfigs) == Feasibility.INFEASIBLE) {
+            throw new IllegalArgumentException("Ships cannot be placed on a board of size " + boardSize);
+        }
+        this.boardSize = boardSize;
+        this.shipConfigs = shipConfigs;
+    }
+
+    // Both fleets are placed from the given generator, the first one first
+    public GameResult play(Move firstMove, Move secondMove, SplittableRandom random) {
+        var firstBoard = placeFleet(random.split());
+        var secondBoard = placeFleet(random.split());
+        return play(new Player("First", firstBoard, false, firstMove), new Player("Second", secondBoard, false, secondMove));
+    }
+
+    // Plays on boards whose ships are already placed
+    public GameResult play(Player first, Player second) {
+        return play(first, second, null);
+    }
+
+    // Also records the game, when a journal is given; the caller owns and closes it
+    public GameResult play(Player first, Player second, MoveJournal journal) {
+        var context = new GameContext();
+        context.setStage(GameStage.GAME);
+        var counter = new ShotCounter(first, boardSize * boardSize * STRIKES_PER_CELL_LIMIT);
+        var listener = journal == null ? counter : StepListener.of(counter, new JournalStepListener(journal, first, second));
+        var stepMachine = new StepMachine(context, listener);
+        boolean firstStep = true;
+        while (true) {
+            var stepResult = stepMachine.cycleSteps(first, second, firstStep);
+            firstStep = false;
+            if (stepResult.isGameOver()) {
+                return new GameResult(first, second, stepResult.getWinner(), counter.firstShots, counter.secondShots);
+            }
+        }
+    }
+
+    private Board placeFleet(SplittableRandom random) {
+        var board = new Board(boardSize);
+        var outcome = FleetPlacer.place(board, shipConfigs, random);
+        if (outcome != PlacementOutcome.PLACED) {
+            throw new IllegalStateException("Ships cannot be placed on a board of size " + boardSize + ": " + outcome.getName());
+        }
+        return board;
+    }
+
+    private static class ShotCounter implements StepListener {
+
+        private final Player first;
+        private final int limit;
+        private int firstShots;
+        private int secondShots;
+        private int strikes;
+
+        private ShotCounter(Player first, int limit) {
+            this.first = first;
+            this.limit = limit;
+        }
+
+        @Override
+        public void struck(Player player, Dot dot, StrikeResult result) {
+            if (++strikes > limit) {
+                throw new IllegalStateException("Game is not finished after " + limit + " strikes; " + player.getName() + " seems stuck");
+            }
+            if (result == StrikeResult.DO_AGAIN) {
+                return;
+            }
+            if (player == first) {
+                firstShots++;
+            } else {
+                secondShots++;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.daba.sb.process;
+
+import com.daba.sb.Dialogue;
+import com.daba.sb.io.LineInput;
+import com.daba.sb.io.LineOutput;
+import com.daba.sb.io.SessionClosedException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs blocking console-style games, each on a thread of its own, over any pair of line channels.
+ * Threads are virtual when the runtime has them; otherwise they are platform threads with a small stack.
+ */
+@Slf4j
+public class GameSessions {
+
+    // Enough for the game flow, which never recurses deeply
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private static final ThreadFactory THREADS = createThreadFactory();
+
+    private static final AtomicLong SESSION_COUNTER = new AtomicLong();
+
+    private GameSessions() {
+    }
+
+    public static Thread start(LineInput input, LineOutput output) {
+        var dialogue = Dialogue.of(input, output);
+        var thread = THREADS.newThread(() -> run(dialogue));
+        thread.start();
+        return thread;
+    }
+
+    public static boolean isVirtual() {
+        return !(THREADS instanceof PlatformThreads);
+    }
+
+    private static void run(Dialogue dialogue) {
+        try {
+            new Game(dialogue, () -> {
+                throw new SessionClosedException("Player has quit");
+            }).play();
+        } catch (SessionClosedException e) {
+            log.debug("Session is closed: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Session failed", e);
+        }
+    }
+
+    // Thread.ofVirtual() is looked up reflectively, so the code still builds and runs on releases without it
+    private static ThreadFactory createThreadFactory() {
+        try {
+            var builderType = Class.forName("java.lang.Thread$Builder");
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "sb-session-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads are not available, sessions run on platform threads");
+            return new PlatformThreads();
+        }
+    }
+
+    private static final class PlatformThreads implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable task) {
+            var thread = new Thread(null, task, "sb-session-" + SESSION_COUNTER.getAndIncrement(), PLATFORM_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
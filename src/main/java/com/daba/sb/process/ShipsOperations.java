@@ -6,13 +6,16 @@ import com.daba.sb.model.Player;
 import com.daba.sb.model.ShipConfig;
 import com.daba.sb.model.board.Board;
 import com.daba.sb.model.GameContext;
+import com.daba.sb.model.process.Feasibility;
 import com.daba.sb.model.process.GameStage;
-import com.daba.sb.util.BoardUtils;
+import com.daba.sb.model.process.PlacementOutcome;
 import com.daba.sb.view.BoardDrawer;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class ShipsOperations {
 
@@ -20,17 +23,26 @@ public class ShipsOperations {
 
     private static final String SHIP_CONFIG_DELIMITER = " of ";
 
-    private static final int RANDOM_PLACEMENT_ATTEMPTS_LIMIT = 10_000;
+    private final Dialogue dialogue;
 
-    private final Dialogue dialogue = Dialogue.join();
+    private final GameContext context;
 
-    private static final List<ShipConfig> DEFAULT_SHIPS = List.of(
+    // The game's generator; every random placement splits its own off it
+    private final SplittableRandom random;
+
+    public static final List<ShipConfig> DEFAULT_SHIPS = List.of(
             new ShipConfig(1, 4),
             new ShipConfig(2, 3),
             new ShipConfig(3, 2),
             new ShipConfig(4, 1)
     );
 
+    public ShipsOperations(Dialogue dialogue, GameContext context, SplittableRandom random) {
+        this.dialogue = dialogue;
+        this.context = context;
+        this.random = random;
+    }
+
     public List<ShipConfig> configureShips(int boardSize) {
         List<ShipConfig> configs = new ArrayList<>();
         dialogue.say("Standard ships are: 1 ship of size 4, 2 ships of size 3, 3 ships of size 2, 4 ships of size 1");
@@ -61,22 +73,23 @@ public class ShipsOperations {
         }
     }
 
-    private boolean isPlausibleConfigs(List<ShipConfig> configs, int boardSize) {
+    public boolean isPlausibleConfigs(List<ShipConfig> configs, int boardSize) {
         if (configs.isEmpty()) {
             dialogue.say("You cannot play without ships");
             return false;
         }
-        if (configs.stream().mapToInt(c -> c.getCount() * c.getSize()).sum() > boardSize * boardSize) {
+        if (FleetFeasibility.check(boardSize, configs) == Feasibility.INFEASIBLE) {
             dialogue.say("You added too many ships, they cannot be placed on the board of that size");
             return false;
         }
         return true;
     }
 
-    private ShipConfig createConfig(String raw, int boardSize) {
+    public ShipConfig createConfig(String raw, int boardSize) {
         var parts = raw.split(SHIP_CONFIG_DELIMITER);
         if (parts.length != 2) {
             dialogue.say("Cannot parse ship config. It should be in format 'a of b' (without quotes)");
+            return null;
         }
         try {
             int count = Integer.parseInt(parts[0]);
@@ -97,8 +110,8 @@ public class ShipsOperations {
     }
 
     public boolean placeShips(Player player, List<ShipConfig> shipConfigs) {
-        GameContext.getInstance().setStage(GameStage.SHIP_PLACEMENT);
-        GameContext.getInstance().setPlayer(player);
+        context.setStage(GameStage.SHIP_PLACEMENT);
+        context.setPlayer(player);
         var board = player.getBoard();
         if (!player.isHuman()) {
             dialogue.say("AI player will place ships randomly");
@@ -116,7 +129,7 @@ public class ShipsOperations {
 
     private void placeShipsManually(Board board, List<ShipConfig> shipConfigs) {
         dialogue.say("Now place your ships");
-        BoardDrawer.drawOwn(board);
+        BoardDrawer.drawOwn(dialogue, board);
         for (ShipConfig shipConfig : shipConfigs) {
             dialogue.say("Placing {} ships with size {}", shipConfig.getCount(), shipConfig.getSize());
             for (int i = 1; i <= shipConfig.getCount(); i++) {
@@ -127,7 +140,7 @@ public class ShipsOperations {
                 while (true) {
                     var baseDot = dialogue.readDotFromScanner("Enter upper-left dot of a new ship", board.getSize());
                     if (board.placeShip(shipConfig.getSize(), baseDot, alignment)) {
-                        BoardDrawer.drawOwn(board);
+                        BoardDrawer.drawOwn(dialogue, board);
                         break;
                     } else {
                         dialogue.say("Ship cannot be placed in the dot you entered. It's either cannot fit the board or touches/intersects with other ships. Enter dot again");
@@ -138,22 +151,21 @@ public class ShipsOperations {
     }
 
     private boolean placeRandomShips(Board board, List<ShipConfig> shipConfigs) {
-        for (ShipConfig shipConfig : shipConfigs) {
-            for (int i = 1; i <= shipConfig.getCount(); i++) {
-                for (int j = 0; ; j++) {
-                    var alignment = Alignment.getRandom();
-                    var dot = BoardUtils.getRandomDot(board.getSize());
-                    if (board.placeShip(shipConfig.getSize(), dot, alignment)) {
-                        break;
-                    }
-                    if (j == RANDOM_PLACEMENT_ATTEMPTS_LIMIT) {
-                        return false;
-                    }
-                }
-            }
+        var outcome = FleetPlacer.place(board, shipConfigs, random.split());
+        if (outcome == PlacementOutcome.IMPOSSIBLE) {
+            dialogue.say("These ships cannot be placed on the board of size {} in any way", board.getSize());
+            return false;
+        }
+        if (outcome == PlacementOutcome.ABANDONED) {
+            dialogue.say("Placing these ships took too long, the search has been given up");
+            return false;
         }
         dialogue.say("Ships has been placed randomly");
         return true;
     }
 
+    public static boolean placeRandomly(Board board, List<ShipConfig> shipConfigs, RandomGenerator random) {
+        return FleetPlacer.place(board, shipConfigs, random) == PlacementOutcome.PLACED;
+    }
+
 }
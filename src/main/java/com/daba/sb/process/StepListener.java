@@ -0,0 +1,80 @@
+package com.daba.sb.process;
+
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.process.StrikeResult;
+
+// Everything StepMachine reports while it applies the turn rules; all callbacks are optional
+public interface StepListener {
+
+    StepListener SILENT = new StepListener() {
+    };
+
+    // Hears everything, in the given order
+    static StepListener of(StepListener... listeners) {
+        var all = listeners.clone();
+        return new StepListener() {
+            @Override
+            public void gameStarted(Player first) {
+                for (StepListener listener : all) {
+                    listener.gameStarted(first);
+                }
+            }
+
+            @Override
+            public void turnStarted(Player player) {
+                for (StepListener listener : all) {
+                    listener.turnStarted(player);
+                }
+            }
+
+            @Override
+            public void moveRequested(Player player, Player opponent) {
+                for (StepListener listener : all) {
+                    listener.moveRequested(player, opponent);
+                }
+            }
+
+            @Override
+            public void struck(Player player, Dot dot, StrikeResult result) {
+                for (StepListener listener : all) {
+                    listener.struck(player, dot, result);
+                }
+            }
+
+            @Override
+            public void moveRejected(Player player) {
+                for (StepListener listener : all) {
+                    listener.moveRejected(player);
+                }
+            }
+
+            @Override
+            public void strikeAnnounced(Player player, StrikeResult result) {
+                for (StepListener listener : all) {
+                    listener.strikeAnnounced(player, result);
+                }
+            }
+        };
+    }
+
+    default void gameStarted(Player first) {
+    }
+
+    default void turnStarted(Player player) {
+    }
+
+    default void moveRequested(Player player, Player opponent) {
+    }
+
+    // Every strike, including rejected ones and the one that ends the game
+    default void struck(Player player, Dot dot, StrikeResult result) {
+    }
+
+    default void moveRejected(Player player) {
+    }
+
+    default void strikeAnnounced(Player player, StrikeResult result) {
+    }
+
+}
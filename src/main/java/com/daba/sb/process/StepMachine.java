@@ -1,8 +1,7 @@
 package com.daba.sb.process;
 
+import com.daba.sb.metrics.Metrics;
 import com.daba.sb.model.board.Board;
-import com.daba.sb.view.BoardDrawer;
-import com.daba.sb.Dialogue;
 import com.daba.sb.model.board.Dot;
 import com.daba.sb.model.GameContext;
 import com.daba.sb.model.Player;
@@ -11,13 +10,17 @@ import com.daba.sb.model.process.StrikeResult;
 
 public class StepMachine {
 
-    private static final Dialogue dialogue = Dialogue.join();
-    private static final GameContext context = GameContext.getInstance();
+    private final GameContext context;
+    private final StepListener listener;
+
+    public StepMachine(GameContext context, StepListener listener) {
+        this.context = context;
+        this.listener = listener;
+    }
 
     public StepResult cycleSteps(Player first, Player second, boolean firstStep) {
         if (firstStep) {
-            dialogue.say("Player {}, you start the game. Your board is:", first.getName());
-            BoardDrawer.drawOwn(first.getBoard());
+            listener.gameStarted(first);
         }
 
         StepResult firstResult = makeMovesUntilMiss(first, second, firstStep);
@@ -33,38 +36,29 @@ public class StepMachine {
         return StepResult.gameContinues();
     }
 
+    // A whole turn of one player, for callers that drive the other side themselves
+    public StepResult playTurn(Player player, Player opponent) {
+        return makeMovesUntilMiss(player, opponent, false);
+    }
+
     private StepResult makeMovesUntilMiss(Player player, Player opponent, boolean firstStep) {
         context.setPlayer(player);
         context.setOpponent(opponent);
         if (!firstStep) {
-            if (player.isHuman()) {
-                dialogue.say("Player {}, opponent made his moves. Here's your board: ", player.getName());
-                BoardDrawer.drawOwn(player.getBoard());
-            } else {
-                dialogue.say("AI player {} makes a move", player.getName());
-            }
+            listener.turnStarted(player);
         }
         while (true) {
-            if (player.isHuman()) {
-                dialogue.say("Player {}, make a move. Here's opponent's board", player.getName());
-                BoardDrawer.drawOpponents(opponent.getBoard());
-            }
+            listener.moveRequested(player, opponent);
             var firstResult = makeMove(player, opponent.getBoard());
             if (firstResult.isChangingMove() && opponent.getBoard().isGameOver()) {
                 return StepResult.gameOver(player);
             }
             if (firstResult == StrikeResult.DO_AGAIN) {
-                dialogue.say("This move makes no sense. Try striking cells that aren't picked yet");
+                listener.moveRejected(player);
                 continue;
             }
-            dialogue.say(firstResult.getMessage());
-            if (firstResult.isChangingMove()) {
-                if (player.isHuman()) {
-                    dialogue.say("Make another move, player {}", player.getName());
-                } else {
-                    dialogue.say("AI player {} stroke successfully and will make one more move", player.getName());
-                }
-            } else {
+            listener.strikeAnnounced(player, firstResult);
+            if (!firstResult.isChangingMove()) {
                 return StepResult.gameContinues();
             }
         }
@@ -73,12 +67,18 @@ public class StepMachine {
     private StrikeResult makeMove(Player player, Board opponentsBoard) {
         boolean legalMove = false;
         Dot dot = null;
+        var move = player.getMove();
+        var latency = Metrics.move(move.getClass());
         while (!legalMove) {
-            var moveAttempt = player.getMove().make(opponentsBoard);
+            long started = System.nanoTime();
+            var moveAttempt = move.make(opponentsBoard);
+            latency.record(System.nanoTime() - started);
             legalMove = moveAttempt.isLegalMove();
             dot = moveAttempt.getDot();
         }
         var strikeResult = opponentsBoard.strike(dot);
+        Metrics.GAME.struck(strikeResult);
+        listener.struck(player, dot, strikeResult);
         player.getMove().getNotified(strikeResult);
         return strikeResult;
     }
@@ -0,0 +1,95 @@
+package com.daba.sb.process;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.process.TournamentResult;
+import com.daba.sb.process.move.Move;
+import com.daba.sb.util.Seeds;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+// Plays many independent engine games between two strategies on every core and merges the results.
+// Each game gets its own boards, context and Move instances, so workers share nothing but the engine settings.
+// Each game also gets its own generator from the master seed and the game number, so the same seed plays the same
+// games whichever worker takes them.
+public class Tournament {
+
+    // Games per leaf task; large enough to amortise task overhead, small enough to balance the cores
+    private static final int GAMES_PER_TASK = 256;
+
+    private final GameEngine engine;
+    private final BiFunction<List<ShipConfig>, SplittableRandom, ? extends Move> firstStrategy;
+    private final BiFunction<List<ShipConfig>, SplittableRandom, ? extends Move> secondStrategy;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public Tournament(GameEngine engine, BiFunction<List<ShipConfig>, SplittableRandom, ? extends Move> firstStrategy,
+                      BiFunction<List<ShipConfig>, SplittableRandom, ? extends Move> secondStrategy, long seed) {
+        this(engine, firstStrategy, secondStrategy, seed, ForkJoinPool.commonPool());
+    }
+
+    // Strategies are made like Strategy.create, from the fleet and a generator for every random choice they make
+    public Tournament(GameEngine engine, BiFunction<List<ShipConfig>, SplittableRandom, ? extends Move> firstStrategy,
+                      BiFunction<List<ShipConfig>, SplittableRandom, ? extends Move> secondStrategy, long seed,
+                      ForkJoinPool pool) {
+        this.engine = engine;
+        this.firstStrategy = firstStrategy;
+        this.secondStrategy = secondStrategy;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    // Strategies take turns to start, so neither profits from always moving first
+    public TournamentResult play(int games) {
+        if (games < 0) {
+            throw new IllegalArgumentException("Number of games cannot be negative");
+        }
+        return pool.invoke(new Shard(0, games));
+    }
+
+    // Generators are taken from the game's one in a fixed order: the fleets, then either strategy
+    private TournamentResult playRange(int from, int to) {
+        var result = new TournamentResult();
+        var shipConfigs = engine.getShipConfigs();
+        for (int game = from; game < to; game++) {
+            var random = Seeds.forGame(seed, game);
+            var fleets = random.split();
+            Move first = firstStrategy.apply(shipConfigs, random.split());
+            Move second = secondStrategy.apply(shipConfigs, random.split());
+            boolean firstStrategyStarts = game % 2 == 0;
+            var gameResult = firstStrategyStarts
+                    ? engine.play(first, second, fleets)
+                    : engine.play(second, first, fleets);
+            result.add(gameResult, firstStrategyStarts);
+        }
+        return result;
+    }
+
+    private class Shard extends RecursiveTask<TournamentResult> {
+
+        private final int from;
+        private final int to;
+
+        private Shard(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TournamentResult compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                return playRange(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            var left = new Shard(from, middle);
+            left.fork();
+            var right = new Shard(middle, to).compute();
+            return left.join().merge(right);
+        }
+
+    }
+
+}
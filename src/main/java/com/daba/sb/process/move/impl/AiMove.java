@@ -1,6 +1,12 @@
 package com.daba.sb.process.move.impl;
 
 import com.daba.sb.Dialogue;
+import com.daba.sb.ai.EndgameSolver;
+import com.daba.sb.ai.FleetSampler;
+import com.daba.sb.ai.PlacementTable;
+import com.daba.sb.ai.Opening;
+import com.daba.sb.ai.OpeningBook;
+import com.daba.sb.model.ShipConfig;
 import com.daba.sb.model.board.Figure;
 import com.daba.sb.model.process.MoveResult;
 import com.daba.sb.model.process.StrikeResult;
@@ -11,13 +17,29 @@ import com.daba.sb.model.board.Board;
 import com.daba.sb.model.board.Dot;
 import com.daba.sb.process.move.Move;
 
-import java.util.Random;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
 
 public class AiMove implements Move {
 
-    private final Dialogue dialogue = Dialogue.join();
-    private final Random random = new Random();
+    // Larger boards are hunted by drawing any cell until one is strikable, an index of their cells would not fit
+    private static final int HUNT_INDEX_LIMIT = 1 << 22;
 
+    // Null for a headless AI, which does not talk
+    private final Dialogue dialogue;
+    // Null when the fleet is not known, then there is no opening book to play from and no endgame to solve
+    private final List<ShipConfig> shipConfigs;
+    private final SplittableRandom random;
+    // Hunts only on a lattice that every placement of the shortest ship afloat crosses
+    private final boolean parity;
+    private final EndgameSolver solver = EndgameSolver.forGame();
+
+    private Opening opening;
+    private int openingShot;
+    private PlacementTable table;
+    // The last shot came from the endgame solver, not from the hunt
+    private boolean solved;
 
     private AiState state = AiState.RANDOM;
 
@@ -26,31 +48,87 @@ public class AiMove implements Move {
     private AiDirection direction;
     boolean changedDirection = false;
 
+    // Cells the hunt may still draw, in no order. Cells struck by then are only dropped once drawn, so every cell
+    // leaves at most once and a draw takes constant time on average over a game
+    private Board huntBoard;
+    private int[] huntCells;
+    private int huntCount;
+    // Parity hunt: the same for the lattice of the current spacing, and ships sunk by length to know that spacing
+    private int[] latticeCells;
+    private int latticeCount;
+    private int latticeSpacing;
+    private int[] fleetByLength;
+    private int[] sunkByLength;
+    private Dot lastDot;
+
+    public AiMove(Dialogue dialogue) {
+        this(dialogue, null);
+    }
+
+    public AiMove(Dialogue dialogue, List<ShipConfig> shipConfigs) {
+        this(dialogue, shipConfigs, new SplittableRandom());
+    }
+
+    // Draws every random choice from the given generator, so a game played again from the same seed goes the same way
+    public AiMove(Dialogue dialogue, List<ShipConfig> shipConfigs, SplittableRandom random) {
+        this(dialogue, shipConfigs, random, false);
+    }
+
+    public AiMove(Dialogue dialogue, List<ShipConfig> shipConfigs, SplittableRandom random, boolean parity) {
+        this.dialogue = dialogue;
+        this.shipConfigs = shipConfigs;
+        this.random = random;
+        this.parity = parity;
+    }
+
+    public static AiMove headless() {
+        return new AiMove(null);
+    }
+
+    public static AiMove headless(List<ShipConfig> shipConfigs) {
+        return new AiMove(null, shipConfigs);
+    }
+
+    public static AiMove headless(List<ShipConfig> shipConfigs, SplittableRandom random) {
+        return new AiMove(null, shipConfigs, random);
+    }
+
     @Override
     public MoveResult make(Board target) {
+        if (huntBoard != target) {
+            startHunt(target);
+        }
+        var result = aim(target);
+        lastDot = result == null ? null : result.getDot();
+        return result;
+    }
+
+    private MoveResult aim(Board target) {
         if (target.getStats().getShipsLeft() == 1) {
-            dialogue.say("[AI] Just one ship left! Let the hunt begin!");
+            say("[AI] Just one ship left! Let the hunt begin!");
+        }
+        Dot endgame = endgameDot(target);
+        solved = endgame != null;
+        if (solved) {
+            if (state == AiState.RANDOM) {
+                catchedDot = endgame;
+            }
+            say("[AI] {}!", endgame);
+            return MoveResult.legal(endgame);
         }
         if (state == AiState.RANDOM) {
-            dialogue.say("[AI] Where should I strike...");
-            think();
-            Dot dot;
-            while (true) {
-                int x = random.nextInt(target.getSize());
-                int y = random.nextInt(target.getSize());
-                if (target.get(x, y).isStrikable()) {
-                    dot = Dot.of(x, y);
-                    break;
-                }
+            say("[AI] Where should I strike...");
+            Dot dot = openingDot(target);
+            if (dot == null) {
+                dot = huntDot(target);
             }
             catchedDot = dot;
-            dialogue.say("[AI] " + dot + "!");
+            say("[AI] {}!", dot);
             return MoveResult.legal(dot);
         }
         if (state == AiState.FOCUSED) {
-            think();
             if (alignment == null) {
-                alignment = Alignment.getRandom();
+                alignment = Alignment.getRandom(random);
             }
             if (direction == null) {
                 if (catchedDot.getX() == 0 || catchedDot.getY() == 0) {
@@ -58,7 +136,7 @@ public class AiMove implements Move {
                 } else if (catchedDot.getX() == target.getSize() - 1 || catchedDot.getY() == target.getSize() - 1) {
                     direction = AiDirection.DOWN_RIGHT;
                 } else if (direction == null) {
-                    direction = AiDirection.getRandom();
+                    direction = AiDirection.getRandom(random);
                 }
             }
             int x = catchedDot.getX();
@@ -81,7 +159,7 @@ public class AiMove implements Move {
                     y = catchedDot.getY();
                 } else if (target.get(x, y).isStrikable()) {
                     Dot dot = Dot.of(x, y);
-                    dialogue.say("[AI] " + dot + "!");
+                    say("[AI] {}!", dot);
                     return MoveResult.legal(dot);
                 }
             }
@@ -91,28 +169,36 @@ public class AiMove implements Move {
 
     @Override
     public void getNotified(StrikeResult strikeResult) {
+        if (solved && strikeResult != StrikeResult.KILLED) {
+            // Only keep track of a wounded ship, in case the solver gives up and the hunt has to take over
+            if (strikeResult == StrikeResult.WOUND && state == AiState.RANDOM) {
+                state = AiState.FOCUSED;
+                changedDirection = false;
+            }
+            return;
+        }
         if (strikeResult == StrikeResult.WOUND && state == AiState.RANDOM) {
-            dialogue.say("[AI] Aha, that's your ship here! Let's strike around");
+            say("[AI] Aha, that's your ship here! Let's strike around");
             state = AiState.FOCUSED;
             changedDirection = false;
             return;
         }
         if (strikeResult == StrikeResult.WOUND && state == AiState.FOCUSED) {
-            dialogue.say("[AI] Now I know the direction. Your ship is doomed!");
+            say("[AI] Now I know the direction. Your ship is doomed!");
             return;
         }
 
         if (strikeResult == StrikeResult.MISS && state == AiState.FOCUSED && !changedDirection) {
-            dialogue.say("[AI] Hmmm... let's change direction");
+            say("[AI] Hmmm... let's change direction");
             direction = direction.inverse();
             changedDirection = true;
             return;
         }
         if (strikeResult == StrikeResult.MISS && state == AiState.FOCUSED && changedDirection) {
             if (alignment == Alignment.HORIZONTAL) {
-                dialogue.say("[AI] Ahh, it's vertical! Ok...");
+                say("[AI] Ahh, it's vertical! Ok...");
             } else {
-                dialogue.say("[AI] Ahh, it's horizontal! Ok...");
+                say("[AI] Ahh, it's horizontal! Ok...");
             }
             changedDirection = false;
             alignment = alignment.turn();
@@ -120,7 +206,8 @@ public class AiMove implements Move {
         }
 
         if (strikeResult == StrikeResult.KILLED) {
-            dialogue.say("[AI] That was a good ship! Was...");
+            recordSunk();
+            say("[AI] That was a good ship! Was...");
             state = AiState.RANDOM;
             changedDirection = false;
             catchedDot = null;
@@ -129,15 +216,174 @@ public class AiMove implements Move {
 
     }
 
-    private boolean outOfBounds(int x, int y, int boardSize) {
+    // The next book shot the target still allows. A book shot only holds while all the ones before it missed, so the
+    // first hit hands the target over to the hunt for good
+    private Dot openingDot(Board target) {
+        if (opening == null) {
+            return null;
+        }
+        if (target.getStats().getCellsDestroyed() > 0) {
+            opening = null;
+            return null;
+        }
+        while (openingShot < opening.getShotCount()) {
+            int cell = opening.getShot(openingShot++);
+            if (target.get(cell).isStrikable()) {
+                return target.getGeometry().dot(cell);
+            }
+        }
+        return null;
+    }
+
+    // Once few cells can still hold a ship there is no more guessing; the hunt state keeps following the results
+    private Dot endgameDot(Board target) {
+        if (shipConfigs == null) {
+            return null;
+        }
+        if (table == null || table.getGeometry().getSize() != target.getSize()) {
+            table = PlacementTable.of(target.getGeometry(), shipConfigs.stream().mapToInt(ShipConfig::getSize).distinct().toArray());
+        }
+        int cell = solver.solve(FleetSampler.observe(table, target, shipConfigs));
+        return cell < 0 ? null : target.getGeometry().dot(cell);
+    }
+
+    private void startHunt(Board target) {
+        huntBoard = target;
+        opening = shipConfigs == null ? null : OpeningBook.find(target.getSize(), shipConfigs).orElse(null);
+        openingShot = 0;
+        huntCells = null;
+        huntCount = 0;
+        latticeSpacing = 0;
+        int cellCount = target.getGeometry().getCellCount();
+        if (cellCount <= HUNT_INDEX_LIMIT) {
+            huntCells = new int[cellCount];
+            for (int cell = 0; cell < cellCount; cell++) {
+                huntCells[cell] = cell;
+            }
+            huntCount = cellCount;
+        }
+        if (parity && shipConfigs != null) {
+            int longest = shipConfigs.stream().mapToInt(ShipConfig::getSize).max().orElse(0);
+            fleetByLength = new int[longest + 1];
+            sunkByLength = new int[longest + 1];
+            for (ShipConfig config : shipConfigs) {
+                fleetByLength[config.getSize()] += config.getCount();
+            }
+        }
+    }
+
+    private Dot huntDot(Board target) {
+        if (huntCells == null) {
+            while (true) {
+                int x = random.nextInt(target.getSize());
+                int y = random.nextInt(target.getSize());
+                if (target.get(x, y).isStrikable()) {
+                    return Dot.of(x, y);
+                }
+            }
+        }
+        int cell = parity ? latticeCell(target) : -1;
+        while (cell < 0 && huntCount > 0) {
+            int i = random.nextInt(huntCount);
+            if (target.get(huntCells[i]).isStrikable()) {
+                cell = huntCells[i];
+            } else {
+                huntCells[i] = huntCells[--huntCount];
+            }
+        }
+        if (cell < 0) {
+            throw new IllegalStateException("There are no cells left to strike");
+        }
+        return target.getGeometry().dot(cell);
+    }
+
+    // Cells with x + y at a fixed remainder modulo the length of the shortest ship afloat: a line of that many cells
+    // always crosses one. Cells that can no longer hold that ship are dropped too; ships only get longer, so they
+    // never could again. -1 when the lattice has nothing left, which only happens when the fleet is not the one given
+    private int latticeCell(Board target) {
+        int spacing = shortestAfloat();
+        if (spacing < 2) {
+            return -1;
+        }
+        if (spacing != latticeSpacing) {
+            buildLattice(target, spacing);
+        }
+        while (latticeCount > 0) {
+            int i = random.nextInt(latticeCount);
+            int cell = latticeCells[i];
+            if (target.get(cell).isStrikable() && fits(target, cell, spacing)) {
+                return cell;
+            }
+            latticeCells[i] = latticeCells[--latticeCount];
+        }
+        return -1;
+    }
+
+    private void buildLattice(Board target, int spacing) {
+        int size = target.getSize();
+        int offset = random.nextInt(spacing);
+        latticeSpacing = spacing;
+        latticeCells = new int[huntCount];
+        latticeCount = 0;
+        for (int i = 0; i < huntCount; i++) {
+            int cell = huntCells[i];
+            if ((cell % size + cell / size) % spacing == offset && target.get(cell).isStrikable()) {
+                latticeCells[latticeCount++] = cell;
+            }
+        }
+    }
+
+    private int shortestAfloat() {
+        if (fleetByLength == null) {
+            return 1;
+        }
+        for (int length = 1; length < fleetByLength.length; length++) {
+            if (fleetByLength[length] > sunkByLength[length]) {
+                return length;
+            }
+        }
+        return 1;
+    }
+
+    // The sunk ship runs through the last shot, along one line of destroyed cells
+    private void recordSunk() {
+        if (sunkByLength == null || lastDot == null) {
+            return;
+        }
+        Predicate<Figure> destroyed = figure -> figure == Figure.DESTROYED;
+        int length = Math.max(line(huntBoard, lastDot, 1, 0, destroyed), line(huntBoard, lastDot, 0, 1, destroyed));
+        if (length < sunkByLength.length) {
+            sunkByLength[length]++;
+        }
+    }
+
+    private static boolean fits(Board target, int cell, int length) {
+        var dot = target.getGeometry().dot(cell);
+        return line(target, dot, 1, 0, Figure::isStrikable) >= length || line(target, dot, 0, 1, Figure::isStrikable) >= length;
+    }
+
+    // Cells in a row or column through the dot that all pass the test, the dot itself included
+    private static int line(Board target, Dot dot, int dx, int dy, Predicate<Figure> test) {
+        int count = 1;
+        for (int side = -1; side <= 1; side += 2) {
+            int x = dot.getX() + side * dx;
+            int y = dot.getY() + side * dy;
+            while (!outOfBounds(x, y, target.getSize()) && test.test(target.get(x, y))) {
+                count++;
+                x += side * dx;
+                y += side * dy;
+            }
+        }
+        return count;
+    }
+
+    private static boolean outOfBounds(int x, int y, int boardSize) {
         return x < 0 || y < 0 || x >= boardSize || y >= boardSize;
     }
 
-    private void think() {
-        try {
-            Thread.sleep(1500);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+    private void say(String pattern, Object... args) {
+        if (dialogue != null) {
+            dialogue.say(pattern, args);
         }
     }
 
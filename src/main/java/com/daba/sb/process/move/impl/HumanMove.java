@@ -8,9 +8,15 @@ import com.daba.sb.process.move.Move;
 
 public class HumanMove implements Move {
 
+    private final Dialogue dialogue;
+
+    public HumanMove(Dialogue dialogue) {
+        this.dialogue = dialogue;
+    }
+
     @Override
     public MoveResult make(Board target) {
-        var dot = Dialogue.join().readDotFromScanner("Enter your move: ", target.getSize());
+        var dot = dialogue.readDotFromScanner("Enter your move: ", target.getSize());
         if (dot == null) {
             return MoveResult.illegal();
         }
@@ -0,0 +1,207 @@
+package com.daba.sb.process.move.impl;
+
+import com.daba.sb.Dialogue;
+import com.daba.sb.ai.EndgameSolver;
+import com.daba.sb.ai.FleetSampler;
+import com.daba.sb.ai.Opening;
+import com.daba.sb.ai.OpeningBook;
+import com.daba.sb.ai.PlacementTable;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Figure;
+import com.daba.sb.model.process.MoveResult;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.move.Move;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Samples whole fleets that agree with the target board on every worker of a pool until the time budget is spent,
+// then shoots the unknown cell that most of them cover. More cores mean more samples in the same time;
+// on one core it is the same search with fewer of them. Once few cells are left the endgame is solved exactly instead.
+public class MonteCarloMove implements Move {
+
+    // What the console AI takes per move at most; it used to sleep this long to look thoughtful
+    public static final Duration THINKING_TIME = Duration.ofMillis(1500);
+
+    // Samples per console AI move; plenty to pick a good cell, and reached long before the thinking time
+    public static final long INTERACTIVE_SAMPLES = 20_000;
+
+    private final Dialogue dialogue;
+    private final List<ShipConfig> shipConfigs;
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+    private final long sampleLimit;
+    private final SplittableRandom random;
+    private final EndgameSolver endgame = EndgameSolver.forGame();
+
+    private PlacementTable table;
+    private Opening opening;
+
+    public MonteCarloMove(List<ShipConfig> shipConfigs, Duration budget) {
+        this(null, shipConfigs, budget, ForkJoinPool.commonPool(), Long.MAX_VALUE);
+    }
+
+    // The console AI, which says what it is doing. All console games share a pool of their own, so many sessions
+    // cannot take every core, nor hold up other work on the common pool
+    public MonteCarloMove(Dialogue dialogue, List<ShipConfig> shipConfigs) {
+        this(dialogue, shipConfigs, new SplittableRandom());
+    }
+
+    public MonteCarloMove(Dialogue dialogue, List<ShipConfig> shipConfigs, SplittableRandom random) {
+        this(dialogue, shipConfigs, THINKING_TIME, InteractivePool.POOL, INTERACTIVE_SAMPLES, random);
+    }
+
+    // Sampling stops at the budget or after sampleLimit accepted fleets, whichever comes first
+    public MonteCarloMove(Dialogue dialogue, List<ShipConfig> shipConfigs, Duration budget, ForkJoinPool pool, long sampleLimit) {
+        this(dialogue, shipConfigs, budget, pool, sampleLimit, new SplittableRandom());
+    }
+
+    // Every worker gets a generator split from the given one. With a sample limit that is reached before the budget,
+    // and the same pool parallelism, a game played again from the same seed goes the same way
+    public MonteCarloMove(Dialogue dialogue, List<ShipConfig> shipConfigs, Duration budget, ForkJoinPool pool, long sampleLimit,
+                          SplittableRandom random) {
+        if (shipConfigs == null || shipConfigs.isEmpty()) {
+            throw new IllegalArgumentException("Monte Carlo AI needs to know the fleet it is hunting");
+        }
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("Monte Carlo AI needs some time to sample");
+        }
+        this.dialogue = dialogue;
+        this.shipConfigs = shipConfigs;
+        this.budgetNanos = budget.toNanos();
+        this.pool = pool;
+        this.sampleLimit = sampleLimit;
+        this.random = random;
+    }
+
+    @Override
+    public MoveResult make(Board target) {
+        if (table == null || table.getGeometry().getSize() != target.getSize()) {
+            table = PlacementTable.of(target.getGeometry(), shipConfigs.stream().mapToInt(ShipConfig::getSize).distinct().toArray());
+            opening = OpeningBook.find(target.getSize(), shipConfigs).orElse(null);
+        }
+        say("[AI] Where should I strike...");
+        int booked = bookShot(target);
+        if (booked >= 0) {
+            var dot = target.getGeometry().dot(booked);
+            say("[AI] {}!", dot);
+            return MoveResult.legal(dot);
+        }
+        var sampler = FleetSampler.observe(table, target, shipConfigs);
+        int solved = endgame.solve(sampler);
+        if (solved >= 0) {
+            var dot = target.getGeometry().dot(solved);
+            say("[AI] {}!", dot);
+            return MoveResult.legal(dot);
+        }
+        var workers = sample(sampler);
+        var coverage = new double[sampler.getCellCount()];
+        long samples = 0;
+        for (FleetSampler.Worker worker : workers) {
+            samples += worker.getSamples();
+            var workerCoverage = worker.getCoverage();
+            for (int cell = 0; cell < coverage.length; cell++) {
+                coverage[cell] += workerCoverage[cell];
+            }
+        }
+        int cell = samples > 0 ? mostCovered(sampler, coverage) : fallback(sampler);
+        var dot = target.getGeometry().dot(cell);
+        say("[AI] {}!", dot);
+        return MoveResult.legal(dot);
+    }
+
+    @Override
+    public void getNotified(StrikeResult strikeResult) {
+        if (strikeResult == StrikeResult.KILLED) {
+            say("[AI] That was a good ship! Was...");
+        }
+    }
+
+    // While every shot so far has been a book shot and missed, the book already knows the answer
+    private int bookShot(Board target) {
+        var stats = target.getStats();
+        int shot = stats.getTimesMissed();
+        if (opening == null || stats.getCellsDestroyed() > 0 || shot >= opening.getShotCount()) {
+            return -1;
+        }
+        for (int n = 0; n < shot; n++) {
+            if (target.get(opening.getShot(n)) != Figure.MISS) {
+                return -1;
+            }
+        }
+        return opening.getShot(shot);
+    }
+
+    private List<FleetSampler.Worker> sample(FleetSampler sampler) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int parallelism = Math.max(1, pool.getParallelism());
+        long perWorker = sampleLimit == Long.MAX_VALUE ? Long.MAX_VALUE : (sampleLimit + parallelism - 1) / parallelism;
+        var workers = new ArrayList<FleetSampler.Worker>(parallelism);
+        var tasks = new ArrayList<ForkJoinTask<FleetSampler.Worker>>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            var worker = sampler.worker(random.split());
+            workers.add(worker);
+            tasks.add(ForkJoinTask.adapt(() -> worker.sampleUntil(deadline, perWorker)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        return workers;
+    }
+
+    // Ties are broken uniformly at random
+    private int mostCovered(FleetSampler sampler, double[] counts) {
+        int best = -1;
+        double bestCount = -1;
+        int ties = 0;
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (!sampler.isUnknown(cell) || counts[cell] < bestCount) {
+                continue;
+            }
+            if (counts[cell] > bestCount) {
+                best = cell;
+                bestCount = counts[cell];
+                ties = 1;
+            } else if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if (best < 0) {
+            throw new IllegalStateException("There are no cells left to strike");
+        }
+        return best;
+    }
+
+    // No fleet was drawn in time, or none fits what the board shows: finish a wounded ship, or shoot anywhere unknown
+    private int fallback(FleetSampler sampler) {
+        int size = table.getGeometry().getSize();
+        for (int hit : sampler.getHits()) {
+            int x = hit % size;
+            int y = hit / size;
+            int[][] sides = {{x - 1, y}, {x + 1, y}, {x, y - 1}, {x, y + 1}};
+            for (int[] side : sides) {
+                if (table.getGeometry().contains(side[0], side[1]) && sampler.isUnknown(side[1] * size + side[0])) {
+                    return side[1] * size + side[0];
+                }
+            }
+        }
+        return mostCovered(sampler, new double[sampler.getCellCount()]);
+    }
+
+    private void say(String pattern, Object... args) {
+        if (dialogue != null) {
+            dialogue.say(pattern, args);
+        }
+    }
+
+    // Created with the first console AI; simulations never start it
+    private static final class InteractivePool {
+
+        static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    }
+
+}
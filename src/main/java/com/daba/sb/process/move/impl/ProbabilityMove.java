@@ -0,0 +1,280 @@
+package com.daba.sb.process.move.impl;
+
+import com.daba.sb.ai.PlacementTable;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.BoardGeometry;
+import com.daba.sb.model.board.Figure;
+import com.daba.sb.model.process.MoveResult;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.move.Move;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Shoots the unknown cell that the most placements of the still floating ships could cover.
+// Placement validity and per-cell counts are kept up to date strike by strike instead of being recounted.
+public class ProbabilityMove implements Move {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    private static final byte HIT = 2;
+    private static final byte SUNK = 3;
+
+    // How much more a placement counts for every unsunk hit it explains, as a power of two
+    private static final int HIT_WEIGHT_SHIFT = 6;
+    // Hits beyond this many add no more weight; a long ship with many hits would overflow the score otherwise
+    private static final int MAX_WEIGHTED_HITS = 8;
+
+    private final List<ShipConfig> shipConfigs;
+    private final SplittableRandom random;
+
+    private BoardGeometry geometry;
+    private PlacementTable table;
+
+    private byte[] cells;
+    private boolean[] valid;
+    private int[] remaining;
+    private long[] density;
+
+    // Hits on ships that are not sunk yet
+    private int[] pendingHits;
+    private int pendingCount;
+
+    private long[] score;
+    private int[] visited;
+    private int visitStamp;
+
+    private int lastCell = -1;
+
+    public ProbabilityMove(List<ShipConfig> shipConfigs) {
+        this(shipConfigs, new SplittableRandom());
+    }
+
+    // Ties are broken with the given generator, so a game played again from the same seed goes the same way
+    public ProbabilityMove(List<ShipConfig> shipConfigs, SplittableRandom random) {
+        if (shipConfigs == null || shipConfigs.isEmpty()) {
+            throw new IllegalArgumentException("Probability AI needs to know the fleet it is hunting");
+        }
+        this.shipConfigs = shipConfigs;
+        this.random = random;
+    }
+
+    @Override
+    public MoveResult make(Board target) {
+        if (geometry == null || geometry.getSize() != target.getSize()) {
+            init(target);
+        }
+        int cell = pendingCount > 0 ? bestTargetCell() : -1;
+        if (cell < 0) {
+            cell = bestHuntCell();
+        }
+        lastCell = cell;
+        return MoveResult.legal(geometry.dot(cell));
+    }
+
+    @Override
+    public void getNotified(StrikeResult strikeResult) {
+        if (lastCell < 0) {
+            return;
+        }
+        switch (strikeResult) {
+            case WOUND:
+                hit(lastCell);
+                break;
+            case KILLED:
+                hit(lastCell);
+                sink(lastCell);
+                break;
+            default:
+                // A rejected strike means the cell is already resolved; either way it is no longer a target
+                block(lastCell);
+        }
+        lastCell = -1;
+    }
+
+    private void init(Board target) {
+        geometry = target.getGeometry();
+        int maxLength = shipConfigs.stream().mapToInt(ShipConfig::getSize).max().orElse(0);
+        remaining = new int[maxLength + 1];
+        shipConfigs.forEach(c -> remaining[c.getSize()] += c.getCount());
+        table = PlacementTable.of(geometry, shipConfigs.stream().mapToInt(ShipConfig::getSize).distinct().toArray());
+
+        int cellCount = geometry.getCellCount();
+        cells = new byte[cellCount];
+        density = new long[cellCount];
+        score = new long[cellCount];
+        pendingHits = new int[cellCount];
+        pendingCount = 0;
+        valid = new boolean[table.size()];
+        visited = new int[table.size()];
+        Arrays.fill(valid, true);
+        for (int p = 0; p < table.size(); p++) {
+            for (int cell : table.cells(p)) {
+                density[cell] += remaining[table.length(p)];
+            }
+        }
+
+        // Joining a game in progress: take over what the board already shows
+        for (int cell = 0; cell < cellCount; cell++) {
+            var figure = target.get(cell);
+            if (figure == Figure.MISS) {
+                block(cell);
+            } else if (figure == Figure.DESTROYED) {
+                hit(cell);
+            }
+        }
+    }
+
+    private void hit(int cell) {
+        cells[cell] = HIT;
+        pendingHits[pendingCount++] = cell;
+        // Ships never touch, so nothing can lie right next to a hit without covering it
+        for (int p : table.touching(cell)) {
+            invalidate(p);
+        }
+    }
+
+    private void block(int cell) {
+        if (cells[cell] == UNKNOWN) {
+            cells[cell] = MISS;
+        }
+        for (int p : table.covering(cell)) {
+            invalidate(p);
+        }
+    }
+
+    private void sink(int cell) {
+        int x = cell % geometry.getSize();
+        int y = cell / geometry.getSize();
+        boolean horizontal = isHit(x - 1, y) || isHit(x + 1, y);
+        int dx = horizontal ? 1 : 0;
+        int dy = horizontal ? 0 : 1;
+        int startX = x;
+        int startY = y;
+        while (isHit(startX - dx, startY - dy)) {
+            startX -= dx;
+            startY -= dy;
+        }
+        int length = 0;
+        for (int cx = startX, cy = startY; isHit(cx, cy); cx += dx, cy += dy) {
+            int shipCell = geometry.cell(cx, cy);
+            cells[shipCell] = SUNK;
+            removePending(shipCell);
+            for (int p : table.covering(shipCell)) {
+                invalidate(p);
+            }
+            length++;
+        }
+
+        if (length < remaining.length && remaining[length] > 0) {
+            remaining[length]--;
+            for (int p = table.firstOfLength(length); p < table.firstOfLength(length + 1); p++) {
+                if (valid[p]) {
+                    for (int c : table.cells(p)) {
+                        density[c]--;
+                    }
+                }
+            }
+        }
+
+        // The halo the board has just marked as missed
+        for (int cx = startX, cy = startY, i = 0; i < length; cx += dx, cy += dy, i++) {
+            for (int neighbour : geometry.neighbours(geometry.cell(cx, cy))) {
+                if (cells[neighbour] == UNKNOWN) {
+                    block(neighbour);
+                }
+            }
+        }
+    }
+
+    private void invalidate(int placement) {
+        if (!valid[placement]) {
+            return;
+        }
+        valid[placement] = false;
+        int weight = remaining[table.length(placement)];
+        if (weight == 0) {
+            return;
+        }
+        for (int cell : table.cells(placement)) {
+            density[cell] -= weight;
+        }
+    }
+
+    private boolean isHit(int x, int y) {
+        return geometry.contains(x, y) && cells[geometry.cell(x, y)] == HIT;
+    }
+
+    private void removePending(int cell) {
+        for (int i = 0; i < pendingCount; i++) {
+            if (pendingHits[i] == cell) {
+                pendingHits[i] = pendingHits[--pendingCount];
+                return;
+            }
+        }
+    }
+
+    // Around unsunk hits: weigh every still possible placement through them by how many hits it explains
+    private int bestTargetCell() {
+        visitStamp++;
+        Arrays.fill(score, 0);
+        for (int i = 0; i < pendingCount; i++) {
+            for (int p : table.covering(pendingHits[i])) {
+                if (!valid[p] || visited[p] == visitStamp || remaining[table.length(p)] == 0) {
+                    continue;
+                }
+                visited[p] = visitStamp;
+                int hits = 0;
+                for (int cell : table.cells(p)) {
+                    if (cells[cell] == HIT) {
+                        hits++;
+                    }
+                }
+                long weight = (long) remaining[table.length(p)] << HIT_WEIGHT_SHIFT * Math.min(hits, MAX_WEIGHTED_HITS);
+                for (int cell : table.cells(p)) {
+                    if (cells[cell] == UNKNOWN) {
+                        score[cell] += weight;
+                    }
+                }
+            }
+        }
+        return argMax(score);
+    }
+
+    private int bestHuntCell() {
+        int cell = argMax(density);
+        if (cell >= 0) {
+            return cell;
+        }
+        // Nothing fits any more, which only happens when the fleet description is wrong: take any unknown cell
+        for (int c = 0; c < cells.length; c++) {
+            if (cells[c] == UNKNOWN) {
+                return c;
+            }
+        }
+        throw new IllegalStateException("There are no cells left to strike");
+    }
+
+    // Best positive-scored unknown cell, ties broken uniformly at random; -1 when none scores above zero
+    private int argMax(long[] values) {
+        int best = -1;
+        long bestValue = 0;
+        int ties = 0;
+        for (int cell = 0; cell < values.length; cell++) {
+            if (cells[cell] != UNKNOWN || values[cell] < bestValue || values[cell] == 0) {
+                continue;
+            }
+            if (values[cell] > bestValue) {
+                best = cell;
+                bestValue = values[cell];
+                ties = 1;
+            } else if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.daba.sb.server;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Line framing and buffered output of one client; only ever touched by the thread of its selector loop.
+ * An idle connection holds no buffers beyond a half-received line.
+ */
+@Slf4j
+final class Connection {
+
+    private static final int MAX_LINE_BYTES = 1024;
+
+    // A client that stops reading is dropped rather than buffered for without bound
+    private static final int MAX_PENDING_BYTES = 1 << 20;
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final SelectorLoop loop;
+    private final GameSession session;
+    private final StringBuilder outbox = new StringBuilder();
+    private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+    private int pendingBytes;
+    private byte[] partial;
+    private int partialLength;
+    private boolean closing;
+
+    Connection(SocketChannel channel, SelectionKey key, SelectorLoop loop) {
+        this.channel = channel;
+        this.key = key;
+        this.loop = loop;
+        this.session = new GameSession(line -> outbox.append(line).append(LINE_SEPARATOR), () -> closing = true, this::offload);
+    }
+
+    void start() throws IOException {
+        session.start();
+        flush();
+    }
+
+    void read(ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        int read = channel.read(buffer);
+        if (read < 0) {
+            close();
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining() && !closing) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                var line = new String(partial == null ? new byte[0] : partial, 0, partialLength, StandardCharsets.UTF_8);
+                partialLength = 0;
+                session.accept(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+                continue;
+            }
+            if (partialLength == MAX_LINE_BYTES) {
+                outbox.append("Line is too long").append(LINE_SEPARATOR);
+                closing = true;
+                break;
+            }
+            if (partial == null || partialLength == partial.length) {
+                partial = partial == null ? new byte[64] : Arrays.copyOf(partial, Math.min(partial.length * 2, MAX_LINE_BYTES));
+            }
+            partial[partialLength++] = b;
+        }
+        // A finished line needs no buffer until the next one starts
+        if (partialLength == 0) {
+            partial = null;
+        }
+        flush();
+    }
+
+    void flush() throws IOException {
+        if (outbox.length() > 0) {
+            var bytes = outbox.toString().getBytes(StandardCharsets.UTF_8);
+            outbox.setLength(0);
+            pending.add(ByteBuffer.wrap(bytes));
+            pendingBytes += bytes.length;
+            if (pendingBytes > MAX_PENDING_BYTES) {
+                log.debug("Dropping {}, it does not read its output", channel);
+                close();
+                return;
+            }
+        }
+        while (!pending.isEmpty()) {
+            var head = pending.peek();
+            pendingBytes -= channel.write(head);
+            if (head.hasRemaining()) {
+                break;
+            }
+            pending.poll();
+        }
+        if (pending.isEmpty() && closing) {
+            close();
+            return;
+        }
+        int interest = closing || session.isBusy() ? 0 : SelectionKey.OP_READ;
+        key.interestOps(pending.isEmpty() ? interest : interest | SelectionKey.OP_WRITE);
+    }
+
+    // The follow-up is dropped if the client is gone by the time the work is done
+    private void offload(Runnable work, Runnable then) {
+        try {
+            loop.getWorkers().execute(() -> {
+                try {
+                    work.run();
+                } catch (RuntimeException e) {
+                    log.warn("Session work failed", e);
+                    loop.post(this::close);
+                    return;
+                }
+                loop.post(() -> resume(then));
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Workers are saturated, dropping {}", channel);
+            outbox.append("Server is too busy, please come back later").append(LINE_SEPARATOR);
+            closing = true;
+        }
+    }
+
+    private void resume(Runnable then) {
+        if (!key.isValid()) {
+            return;
+        }
+        try {
+            then.run();
+            flush();
+        } catch (IOException e) {
+            log.debug("Connection failed", e);
+            close();
+        } catch (RuntimeException e) {
+            log.warn("Session failed", e);
+            close();
+        }
+    }
+
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Closing {} failed", channel, e);
+        }
+    }
+
+}
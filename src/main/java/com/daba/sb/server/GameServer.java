@@ -0,0 +1,114 @@
+package com.daba.sb.server;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts games for telnet-like clients speaking the console protocol line by line.
+ * One thread accepts connections and hands them round-robin to a fixed number of selector loops.
+ * AI turns run on a fixed pool of workers shared by all loops, so a long think never stalls I/O.
+ */
+@Slf4j
+public class GameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 4000;
+
+    private static final int ACCEPT_BACKLOG = 4096;
+
+    // AI turns waiting for a worker; sessions beyond that are turned away instead of queued without bound
+    private static final int MAX_QUEUED_TURNS = 1 << 16;
+
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers;
+    private final SelectorLoop[] loops;
+    private final Thread[] threads;
+    private final Thread acceptor;
+
+    public GameServer(InetSocketAddress address, int loopCount) throws IOException {
+        this(address, loopCount, Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameServer(InetSocketAddress address, int loopCount, int workerCount) throws IOException {
+        if (loopCount <= 0) {
+            throw new IllegalArgumentException("Server needs at least one selector loop");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Server needs at least one worker");
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, ACCEPT_BACKLOG);
+        var workerNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_TURNS), task -> {
+                    var thread = new Thread(task, "sb-worker-" + workerNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        loops = new SelectorLoop[loopCount];
+        threads = new Thread[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            loops[i] = new SelectorLoop(workers);
+            threads[i] = new Thread(loops[i], "sb-selector-" + i);
+        }
+        acceptor = new Thread(this::accept, "sb-acceptor");
+    }
+
+    public void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        acceptor.start();
+        log.info("Game server listens on {} with {} selector loops", serverChannel.socket().getLocalSocketAddress(), loops.length);
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return Arrays.stream(loops).mapToInt(SelectorLoop::getConnectionCount).sum();
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (SelectorLoop loop : loops) {
+            loop.close();
+        }
+        workers.shutdownNow();
+    }
+
+    private void accept() {
+        int next = 0;
+        while (serverChannel.isOpen()) {
+            try {
+                var channel = serverChannel.accept();
+                loops[next].add(channel);
+                next = (next + 1) % loops.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Accepting a connection failed", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,384 @@
+package com.daba.sb.server;
+
+import com.daba.sb.Dialogue;
+import com.daba.sb.io.LineOutput;
+import com.daba.sb.metrics.Metrics;
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.GameContext;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.process.GameStage;
+import com.daba.sb.model.process.StepResult;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.DialogueStepListener;
+import com.daba.sb.process.ShipsOperations;
+import com.daba.sb.process.StepMachine;
+import com.daba.sb.process.move.impl.AiMove;
+import com.daba.sb.process.move.impl.HumanMove;
+import com.daba.sb.util.BoardUtils;
+import com.daba.sb.util.GlobalCommandsAssist;
+import com.daba.sb.view.BoardDrawer;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A remote human playing the AI, driven one input line at a time instead of by blocking reads.
+ * Prompts, answers and global commands are those of Game and ShipsOperations. The AI thinks on a worker thread, not on
+ * the selector loop; lines that arrive meanwhile wait for it, and its output is held until the turn is back on the loop.
+ */
+class GameSession {
+
+    // Keeps a session's boards small enough for thousands of them on one node
+    static final int MAX_BOARD_SIZE = 64;
+
+    private static final String FINISH_COMMAND = "F";
+
+    private static final String AI_NAME = "AI";
+
+    private enum State {
+        BOARD_SIZE, CUSTOM_SHIPS, SHIP_CONFIG, PLAYER_NAME, RANDOM_PLACEMENT, ALIGNMENT, BASE_DOT, MOVE, AI_TURN, OVER
+    }
+
+    // Runs work off the selector loop and then its follow-up back on it
+    @FunctionalInterface
+    interface Offload {
+        void submit(Runnable work, Runnable then);
+    }
+
+    private final LineOutput output;
+    private final Offload offload;
+    private final Dialogue dialogue;
+    private final GameContext context = new GameContext();
+    private final DialogueStepListener listener;
+    private final StepMachine stepMachine;
+    private final ShipsOperations shipsOperations;
+    // The session's generator; the AI and every random placement split their own off it
+    private final SplittableRandom random = new SplittableRandom();
+    private final Runnable close;
+    // Typed ahead while the AI moves; the connection stops reading meanwhile, so this holds one read at most
+    private final ArrayDeque<String> waiting = new ArrayDeque<>();
+
+    // Output of an AI turn in progress, written by the worker
+    private List<String> turnOutput;
+    private State state;
+    private String request;
+    private int boardSize;
+    private List<ShipConfig> shipConfigs;
+    private Player human;
+    private Player ai;
+
+    // Manual placement progress
+    private int configIndex;
+    private int shipNumber;
+    private Alignment alignment;
+
+    GameSession(LineOutput output, Runnable close, Offload offload) {
+        this.output = output;
+        this.offload = offload;
+        this.dialogue = Dialogue.writingTo(this::write);
+        this.listener = new DialogueStepListener(dialogue);
+        this.stepMachine = new StepMachine(context, listener);
+        this.shipsOperations = new ShipsOperations(dialogue, context, random);
+        this.close = () -> {
+            state = State.OVER;
+            close.run();
+        };
+        GlobalCommandsAssist.registerGlobalCommands(dialogue, context, this.close);
+    }
+
+    void start() {
+        context.setStage(GameStage.PREPARATION);
+        dialogue.reportGlobalCommands();
+        ask(State.BOARD_SIZE, "Enter board size: ");
+    }
+
+    boolean isBusy() {
+        return state == State.AI_TURN;
+    }
+
+    void accept(String line) {
+        if (state == State.AI_TURN) {
+            waiting.add(line);
+            return;
+        }
+        if (state == State.OVER || dialogue.handleGlobalCommand(line, request)) {
+            return;
+        }
+        switch (state) {
+            case BOARD_SIZE:
+                acceptBoardSize(line);
+                break;
+            case CUSTOM_SHIPS:
+                acceptCustomShips(line);
+                break;
+            case SHIP_CONFIG:
+                acceptShipConfig(line);
+                break;
+            case PLAYER_NAME:
+                acceptPlayerName(line);
+                break;
+            case RANDOM_PLACEMENT:
+                acceptRandomPlacement(line);
+                break;
+            case ALIGNMENT:
+                acceptAlignment(line);
+                break;
+            case BASE_DOT:
+                acceptBaseDot(line);
+                break;
+            case MOVE:
+                acceptMove(line);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected session state " + state);
+        }
+    }
+
+    private void acceptBoardSize(String line) {
+        if (!NumberUtils.isParsable(line) || Integer.parseInt(line) <= 0) {
+            dialogue.say("Entered value is not a positive integer. Please enter again");
+            return;
+        }
+        int size = Integer.parseInt(line);
+        if (size < 3 || size > MAX_BOARD_SIZE) {
+            dialogue.say("Board size should be from 3 to {} on this server. Please enter again", MAX_BOARD_SIZE);
+            return;
+        }
+        boardSize = size;
+        dialogue.say("Standard ships are: 1 ship of size 4, 2 ships of size 3, 3 ships of size 2, 4 ships of size 1");
+        ask(State.CUSTOM_SHIPS, Dialogue.withVariants("Do you want to set custom ship configs?", Dialogue.YES_NO));
+    }
+
+    private void acceptCustomShips(String line) {
+        if (!acceptVariant(line, Dialogue.YES_NO.keySet())) {
+            return;
+        }
+        if (Dialogue.YES_NO.get(line).get()) {
+            dialogue.say("Now configure custom ships");
+            shipConfigs = new ArrayList<>();
+            askShipConfig();
+            return;
+        }
+        if (!shipsOperations.isPlausibleConfigs(ShipsOperations.DEFAULT_SHIPS, boardSize)) {
+            dialogue.say("The board size is too small to play on standard configs. Please start the game once again");
+            close.run();
+            return;
+        }
+        dialogue.say("Game will be played with standard ships");
+        shipConfigs = ShipsOperations.DEFAULT_SHIPS;
+        ask(State.PLAYER_NAME, "Enter player name: ");
+    }
+
+    private void acceptShipConfig(String line) {
+        if (StringUtils.isEmpty(line)) {
+            dialogue.say("Entered value is empty. Please enter again");
+            return;
+        }
+        if (FINISH_COMMAND.equals(line)) {
+            if (!shipsOperations.isPlausibleConfigs(shipConfigs, boardSize)) {
+                dialogue.say("The config of ships you created is implausible. Please start the game once again");
+                close.run();
+                return;
+            }
+            ask(State.PLAYER_NAME, "Enter player name: ");
+            return;
+        }
+        var config = shipsOperations.createConfig(line, boardSize);
+        if (config != null) {
+            shipConfigs.add(config);
+        }
+        askShipConfig();
+    }
+
+    private void askShipConfig() {
+        ask(State.SHIP_CONFIG, "Enter ship config in format 'a of b' (without quotes) to add a ships of size b. Enter F to finish");
+    }
+
+    private void acceptPlayerName(String line) {
+        if (StringUtils.isEmpty(line)) {
+            dialogue.say("Entered value is empty. Please enter again");
+            return;
+        }
+        human = new Player(line, new Board(boardSize), true, new HumanMove(dialogue));
+        ai = new Player(AI_NAME, new Board(boardSize), false, AiMove.headless(shipConfigs, random.split()));
+        if (!ShipsOperations.placeRandomly(ai.getBoard(), shipConfigs, random.split())) {
+            dialogue.say("Something went wrong with ship placement. " +
+                    "Probably, the field is too small for given amount of ships. Kindly start the game again.");
+            close.run();
+            return;
+        }
+        context.setStage(GameStage.SHIP_PLACEMENT);
+        context.setPlayer(human);
+        dialogue.say("Player {} places ships", human.getName());
+        ask(State.RANDOM_PLACEMENT, Dialogue.withVariants("Should the game place ships randomly for you?", Dialogue.YES_NO));
+    }
+
+    private void acceptRandomPlacement(String line) {
+        if (!acceptVariant(line, Dialogue.YES_NO.keySet())) {
+            return;
+        }
+        if (Dialogue.YES_NO.get(line).get()) {
+            dialogue.say("Your ships will now be placed randomly");
+            if (!ShipsOperations.placeRandomly(human.getBoard(), shipConfigs, random.split())) {
+                dialogue.say("Something went wrong with ship placement. " +
+                        "Probably, the field is too small for given amount of ships. Kindly start the game again.");
+                close.run();
+                return;
+            }
+            dialogue.say("Ships has been placed randomly");
+            startGame();
+            return;
+        }
+        dialogue.say("Now place your ships");
+        BoardDrawer.drawOwn(dialogue, human.getBoard());
+        configIndex = 0;
+        shipNumber = 1;
+        askNextShip();
+    }
+
+    private void askNextShip() {
+        if (configIndex == shipConfigs.size()) {
+            startGame();
+            return;
+        }
+        var shipConfig = shipConfigs.get(configIndex);
+        if (shipNumber == 1) {
+            dialogue.say("Placing {} ships with size {}", shipConfig.getCount(), shipConfig.getSize());
+        }
+        dialogue.say("Placing ship #{} of size {}", shipNumber, shipConfig.getSize());
+        if (shipConfig.getSize() == 1) {
+            alignment = Alignment.HORIZONTAL;
+            ask(State.BASE_DOT, "Enter upper-left dot of a new ship");
+        } else {
+            ask(State.ALIGNMENT, Dialogue.withVariants("Should it be vertical or horizontal?", Dialogue.ALIGNMENTS));
+        }
+    }
+
+    private void acceptAlignment(String line) {
+        if (!acceptVariant(line, Dialogue.ALIGNMENTS.keySet())) {
+            return;
+        }
+        alignment = Dialogue.ALIGNMENTS.get(line).get();
+        ask(State.BASE_DOT, "Enter upper-left dot of a new ship");
+    }
+
+    private void acceptBaseDot(String line) {
+        if (!BoardUtils.isCorrectDot(line, boardSize)) {
+            dialogue.say("Dot is incorrect for given board. Please enter again");
+            return;
+        }
+        var shipConfig = shipConfigs.get(configIndex);
+        if (!human.getBoard().placeShip(shipConfig.getSize(), BoardUtils.createDot(line, boardSize), alignment)) {
+            dialogue.say("Ship cannot be placed in the dot you entered. It's either cannot fit the board or touches/intersects with other ships. Enter dot again");
+            ask(State.BASE_DOT, "Enter upper-left dot of a new ship");
+            return;
+        }
+        BoardDrawer.drawOwn(dialogue, human.getBoard());
+        if (++shipNumber > shipConfig.getCount()) {
+            configIndex++;
+            shipNumber = 1;
+        }
+        askNextShip();
+    }
+
+    private void startGame() {
+        context.setStage(GameStage.GAME);
+        listener.gameStarted(human);
+        askMove();
+    }
+
+    private void askMove() {
+        context.setPlayer(human);
+        context.setOpponent(ai);
+        listener.moveRequested(human, ai);
+        ask(State.MOVE, "Enter your move: ");
+    }
+
+    private void acceptMove(String line) {
+        if (!BoardUtils.isCorrectDot(line, boardSize)) {
+            dialogue.say("Dot is incorrect for given board. Please enter again");
+            return;
+        }
+        var dot = BoardUtils.createDot(line, boardSize);
+        var result = ai.getBoard().strike(dot);
+        Metrics.GAME.struck(result);
+        listener.struck(human, dot, result);
+        if (result.isChangingMove() && ai.getBoard().isGameOver()) {
+            finish(human);
+            return;
+        }
+        if (result == StrikeResult.DO_AGAIN) {
+            listener.moveRejected(human);
+            askMove();
+            return;
+        }
+        listener.strikeAnnounced(human, result);
+        if (result.isChangingMove()) {
+            askMove();
+            return;
+        }
+        // The AI answers right away, it never waits for input, but it may think long enough to hold up other sessions
+        state = State.AI_TURN;
+        turnOutput = new ArrayList<>();
+        var outcome = new StepResult[1];
+        offload.submit(() -> outcome[0] = stepMachine.playTurn(ai, human), () -> aiTurnPlayed(outcome[0]));
+    }
+
+    private void aiTurnPlayed(StepResult outcome) {
+        var lines = turnOutput;
+        turnOutput = null;
+        lines.forEach(output::writeLine);
+        if (state == State.OVER) {
+            return;
+        }
+        if (outcome.isGameOver()) {
+            finish(ai);
+            return;
+        }
+        listener.turnStarted(human);
+        askMove();
+        while (!waiting.isEmpty() && state != State.AI_TURN && state != State.OVER) {
+            accept(waiting.poll());
+        }
+    }
+
+    private void finish(Player winner) {
+        context.setPlayer(human);
+        context.setOpponent(ai);
+        dialogue.say("Game over! {} has won", winner.getName());
+        GlobalCommandsAssist.drawPlayersBoard(dialogue, context);
+        GlobalCommandsAssist.drawOpponentsBoard(dialogue, context);
+        GlobalCommandsAssist.reportSituation(dialogue, context);
+        close.run();
+    }
+
+    private boolean acceptVariant(String line, Set<String> variants) {
+        if (variants.contains(line)) {
+            return true;
+        }
+        dialogue.say("Given variant is not in the list. Please enter again");
+        return false;
+    }
+
+    private void write(String line) {
+        if (turnOutput != null) {
+            turnOutput.add(line);
+        } else {
+            output.writeLine(line);
+        }
+    }
+
+    private void ask(State next, String requestMessage) {
+        state = next;
+        request = requestMessage;
+        dialogue.ask(requestMessage);
+    }
+
+}
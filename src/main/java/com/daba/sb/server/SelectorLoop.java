@@ -0,0 +1,144 @@
+package com.daba.sb.server;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+// One selector thread serving its share of connections; sessions run on it, so they need no locking. Slow work goes
+// to the shared workers and comes back through post
+
+@Slf4j
+final class SelectorLoop implements Runnable {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final Selector selector;
+    private final Executor workers;
+    private final Queue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+    private final Queue<Runnable> posted = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    private volatile boolean running = true;
+
+    SelectorLoop(Executor workers) throws IOException {
+        this.selector = Selector.open();
+        this.workers = workers;
+    }
+
+    void add(SocketChannel channel) {
+        incoming.add(channel);
+        selector.wakeup();
+    }
+
+    Executor getWorkers() {
+        return workers;
+    }
+
+    // Runs the task on this loop's thread
+    void post(Runnable task) {
+        posted.add(task);
+        selector.wakeup();
+    }
+
+    int getConnectionCount() {
+        return selector.keys().size();
+    }
+
+    // The loop closes its connections itself once it wakes up
+    void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                registerIncoming();
+                runPosted();
+                var selected = selector.selectedKeys();
+                for (SelectionKey key : selected) {
+                    serve(key);
+                }
+                selected.clear();
+            }
+        } catch (IOException e) {
+            log.error("Selector loop failed", e);
+        }
+        for (SelectionKey key : selector.keys()) {
+            ((Connection) key.attachment()).close();
+        }
+        SocketChannel channel;
+        while ((channel = incoming.poll()) != null) {
+            closeQuietly(channel, null);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Closing selector failed", e);
+        }
+    }
+
+    private void registerIncoming() {
+        SocketChannel channel;
+        while ((channel = incoming.poll()) != null) {
+            Connection connection = null;
+            try {
+                channel.configureBlocking(false);
+                var key = channel.register(selector, SelectionKey.OP_READ);
+                connection = new Connection(channel, key, this);
+                key.attach(connection);
+                connection.start();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cannot start a session for {}", channel, e);
+                closeQuietly(channel, connection);
+            }
+        }
+    }
+
+    private void runPosted() {
+        Runnable task;
+        while ((task = posted.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void serve(SelectionKey key) {
+        var connection = (Connection) key.attachment();
+        try {
+            if (key.isValid() && key.isReadable()) {
+                connection.read(readBuffer);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (IOException e) {
+            log.debug("Connection failed", e);
+            connection.close();
+        } catch (RuntimeException e) {
+            // One broken session must not take the loop and its other sessions down
+            log.warn("Session failed", e);
+            connection.close();
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel, Connection connection) {
+        if (connection != null) {
+            connection.close();
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Closing {} failed", channel, e);
+        }
+    }
+
+}
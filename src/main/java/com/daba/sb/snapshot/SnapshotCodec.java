@@ -0,0 +1,212 @@
+package com.daba.sb.snapshot;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.GameContext;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Ship;
+import com.daba.sb.model.process.GameStage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary snapshot of a game: both players with their boards, fleets and stats, and the stage.
+ * Every field sits at a fixed offset from the snapshot start, or from a section start found in the header,
+ * and is read with absolute gets straight into the restored boards.
+ * <pre>
+ * header   0 magic, 4 version, 5 stage (-1 for none), 6 flags, 8 length,
+ *         12 player board, 16 opponent board, 20 names; offsets are from the snapshot start
+ * board    0 size, 4 ships, 8 cells destroyed, cells left, ships wound, ships destroyed, ships left, times missed,
+ *         32 ships of 12 bytes: base cell, size (char), vertical, reserved, cells left;
+ *          then the hit plane and the miss plane, row-major longs of 64 cells each
+ * names    length (char) and UTF-8 bytes, player's then opponent's
+ * </pre>
+ * Restored players have no moves; the caller gives them ones that fit where the snapshot is restored.
+ */
+public final class SnapshotCodec {
+
+    private static final int MAGIC = 0x53425331;
+
+    private static final byte VERSION = 1;
+
+    private static final int HEADER_BYTES = 24;
+
+    private static final int BOARD_HEADER_BYTES = 32;
+
+    private static final int SHIP_BYTES = 12;
+
+    private static final int PLAYERS_FLAG = 1;
+
+    private static final int PLAYER_HUMAN_FLAG = 1 << 1;
+
+    private static final int OPPONENT_HUMAN_FLAG = 1 << 2;
+
+    private static final GameStage[] STAGES = GameStage.values();
+
+    private SnapshotCodec() {
+    }
+
+    public static int sizeOf(GameContext context) {
+        if (!hasPlayers(context)) {
+            return HEADER_BYTES;
+        }
+        return HEADER_BYTES + sizeOf(context.getPlayer().getBoard()) + sizeOf(context.getOpponent().getBoard())
+                + 2 * Character.BYTES + name(context.getPlayer()).length + name(context.getOpponent()).length;
+    }
+
+    public static ByteBuffer encode(GameContext context) {
+        var buffer = ByteBuffer.allocate(sizeOf(context));
+        encode(context, buffer);
+        return buffer.flip();
+    }
+
+    // Writes at the buffer position and moves it past the snapshot
+    public static void encode(GameContext context, ByteBuffer buffer) {
+        int start = buffer.position();
+        int length = sizeOf(context);
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("Snapshot needs " + length + " bytes, buffer has " + buffer.remaining());
+        }
+        var stage = context.getStage();
+        buffer.putInt(start, MAGIC);
+        buffer.put(start + 4, VERSION);
+        buffer.put(start + 5, (byte) (stage == null ? -1 : stage.ordinal()));
+        buffer.putInt(start + 8, length);
+        if (!hasPlayers(context)) {
+            buffer.put(start + 6, (byte) 0);
+            buffer.position(start + length);
+            return;
+        }
+        var player = context.getPlayer();
+        var opponent = context.getOpponent();
+        buffer.put(start + 6, (byte) (PLAYERS_FLAG | (player.isHuman() ? PLAYER_HUMAN_FLAG : 0)
+                | (opponent.isHuman() ? OPPONENT_HUMAN_FLAG : 0)));
+        int playerBoard = HEADER_BYTES;
+        int opponentBoard = playerBoard + sizeOf(player.getBoard());
+        int names = opponentBoard + sizeOf(opponent.getBoard());
+        buffer.putInt(start + 12, playerBoard);
+        buffer.putInt(start + 16, opponentBoard);
+        buffer.putInt(start + 20, names);
+        putBoard(buffer, start + playerBoard, player.getBoard());
+        putBoard(buffer, start + opponentBoard, opponent.getBoard());
+        int offset = putName(buffer, start + names, name(player));
+        putName(buffer, offset, name(opponent));
+        buffer.position(start + length);
+    }
+
+    // Reads from the buffer position and moves it past the snapshot
+    public static GameContext decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(start) != MAGIC) {
+            throw new IllegalArgumentException("Not a game snapshot");
+        }
+        if (buffer.get(start + 4) != VERSION) {
+            throw new IllegalArgumentException("Snapshot version " + buffer.get(start + 4) + " is not supported");
+        }
+        int length = buffer.getInt(start + 8);
+        if (length < HEADER_BYTES || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Snapshot is truncated");
+        }
+        var context = new GameContext();
+        int stage = buffer.get(start + 5);
+        context.setStage(stage < 0 ? null : STAGES[stage]);
+        int flags = buffer.get(start + 6);
+        if ((flags & PLAYERS_FLAG) != 0) {
+            var playerBoard = getBoard(buffer, start + buffer.getInt(start + 12));
+            var opponentBoard = getBoard(buffer, start + buffer.getInt(start + 16));
+            int names = start + buffer.getInt(start + 20);
+            int playerNameLength = buffer.getChar(names);
+            var playerName = getName(buffer, names);
+            var opponentName = getName(buffer, names + Character.BYTES + playerNameLength);
+            context.setPlayer(new Player(playerName, playerBoard, (flags & PLAYER_HUMAN_FLAG) != 0, null));
+            context.setOpponent(new Player(opponentName, opponentBoard, (flags & OPPONENT_HUMAN_FLAG) != 0, null));
+        }
+        buffer.position(start + length);
+        return context;
+    }
+
+    static int sizeOf(Board board) {
+        long bytes = BOARD_HEADER_BYTES + (long) SHIP_BYTES * board.getFleet().size() + 2L * Long.BYTES * board.getPlaneWords();
+        if (bytes > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Board of size " + board.getSize() + " is too large for a snapshot");
+        }
+        return (int) bytes;
+    }
+
+    private static void putBoard(ByteBuffer buffer, int offset, Board board) {
+        var stats = board.getStats();
+        var fleet = board.getFleet();
+        int size = board.getSize();
+        buffer.putInt(offset, size);
+        buffer.putInt(offset + 4, fleet.size());
+        buffer.putInt(offset + 8, stats.getCellsDestroyed());
+        buffer.putInt(offset + 12, stats.getCellsLeft());
+        buffer.putInt(offset + 16, stats.getShipsWound());
+        buffer.putInt(offset + 20, stats.getShipsDestroyed());
+        buffer.putInt(offset + 24, stats.getShipsLeft());
+        buffer.putInt(offset + 28, stats.getTimesMissed());
+        int shipOffset = offset + BOARD_HEADER_BYTES;
+        for (Ship ship : fleet) {
+            buffer.putInt(shipOffset, ship.getBase().toCell(size));
+            buffer.putChar(shipOffset + 4, (char) ship.getSize());
+            buffer.put(shipOffset + 6, (byte) (ship.getAlignment() == Alignment.VERTICAL ? 1 : 0));
+            buffer.put(shipOffset + 7, (byte) 0);
+            buffer.putInt(shipOffset + 8, stats.getCellsLeft(ship));
+            shipOffset += SHIP_BYTES;
+        }
+        int words = board.getPlaneWords();
+        int misses = shipOffset + words * Long.BYTES;
+        for (int word = 0; word < words; word++) {
+            buffer.putLong(shipOffset + word * Long.BYTES, board.getHitWord(word));
+            buffer.putLong(misses + word * Long.BYTES, board.getMissWord(word));
+        }
+    }
+
+    private static Board getBoard(ByteBuffer buffer, int offset) {
+        int size = buffer.getInt(offset);
+        int ships = buffer.getInt(offset + 4);
+        var board = new Board(size);
+        int shipOffset = offset + BOARD_HEADER_BYTES;
+        for (int i = 0; i < ships; i++) {
+            int base = buffer.getInt(shipOffset);
+            var alignment = buffer.get(shipOffset + 6) == 0 ? Alignment.HORIZONTAL : Alignment.VERTICAL;
+            Snapshots.restoreShip(board, buffer.getChar(shipOffset + 4), base % size, base / size, alignment,
+                    buffer.getInt(shipOffset + 8));
+            shipOffset += SHIP_BYTES;
+        }
+        int words = board.getPlaneWords();
+        int misses = shipOffset + words * Long.BYTES;
+        for (int word = 0; word < words; word++) {
+            board.restoreStrikes(word, buffer.getLong(shipOffset + word * Long.BYTES), buffer.getLong(misses + word * Long.BYTES));
+        }
+        Snapshots.restoreTotals(board.getStats(), buffer.getInt(offset + 8), buffer.getInt(offset + 12), buffer.getInt(offset + 16),
+                buffer.getInt(offset + 20), buffer.getInt(offset + 24), buffer.getInt(offset + 28));
+        return board;
+    }
+
+    private static int putName(ByteBuffer buffer, int offset, byte[] name) {
+        buffer.putChar(offset, (char) name.length);
+        buffer.put(offset + Character.BYTES, name);
+        return offset + Character.BYTES + name.length;
+    }
+
+    private static String getName(ByteBuffer buffer, int offset) {
+        var bytes = new byte[buffer.getChar(offset)];
+        buffer.get(offset + Character.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] name(Player player) {
+        var bytes = player.getName().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("Player name is too long for a snapshot");
+        }
+        return bytes;
+    }
+
+    private static boolean hasPlayers(GameContext context) {
+        return context.getPlayer() != null && context.getOpponent() != null;
+    }
+
+}
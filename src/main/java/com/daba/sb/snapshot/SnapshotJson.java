@@ -0,0 +1,195 @@
+package com.daba.sb.snapshot;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.GameContext;
+import com.daba.sb.model.Player;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Figure;
+import com.daba.sb.model.board.Ship;
+import com.daba.sb.model.process.GameStage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON form of a game snapshot, for handing states to other tools. Holds the same as {@link SnapshotCodec};
+ * boards are written as rows of the own board view, so they can be read by eye:
+ * <pre>
+ * {"stage":"GAME","player":{"name":"Ann","human":true,"board":{"size":10,
+ *   "ships":[{"x":0,"y":0,"size":4,"alignment":"VERTICAL","cellsLeft":3}],"rows":["X ..", ...],"stats":{...}}},
+ *  "opponent":{...}}
+ * </pre>
+ * Restored players have no moves, as with the binary snapshot.
+ */
+public final class SnapshotJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ObjectWriter WRITER = MAPPER.writerFor(GameState.class);
+
+    private static final ObjectReader READER = MAPPER.readerFor(GameState.class);
+
+    private SnapshotJson() {
+    }
+
+    public static String encode(GameContext context) {
+        var player = context.getPlayer();
+        var opponent = context.getOpponent();
+        boolean players = player != null && opponent != null;
+        var state = new GameState(context.getStage(), players ? toState(player) : null, players ? toState(opponent) : null);
+        try {
+            return WRITER.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Snapshot cannot be written as JSON", e);
+        }
+    }
+
+    public static GameContext decode(String json) {
+        GameState state;
+        try {
+            state = READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Not a JSON game snapshot: " + e.getOriginalMessage(), e);
+        }
+        var context = new GameContext();
+        context.setStage(state.getStage());
+        if (state.getPlayer() != null && state.getOpponent() != null) {
+            context.setPlayer(toPlayer(state.getPlayer()));
+            context.setOpponent(toPlayer(state.getOpponent()));
+        }
+        return context;
+    }
+
+    private static PlayerState toState(Player player) {
+        var board = player.getBoard();
+        var stats = board.getStats();
+        var ships = new ArrayList<ShipState>(board.getFleet().size());
+        for (Ship ship : board.getFleet()) {
+            ships.add(new ShipState(ship.getBase().getX(), ship.getBase().getY(), ship.getSize(), ship.getAlignment(),
+                    stats.getCellsLeft(ship)));
+        }
+        int size = board.getSize();
+        var rows = new ArrayList<String>(size);
+        var row = new StringBuilder(size);
+        for (int y = 0; y < size; y++) {
+            row.setLength(0);
+            for (int x = 0; x < size; x++) {
+                row.append(board.get(x, y).getOwnBoardView());
+            }
+            rows.add(row.toString());
+        }
+        var statsState = new StatsState(stats.getCellsDestroyed(), stats.getCellsLeft(), stats.getShipsWound(),
+                stats.getShipsDestroyed(), stats.getShipsLeft(), stats.getTimesMissed());
+        return new PlayerState(player.getName(), player.isHuman(), new BoardState(size, ships, rows, statsState));
+    }
+
+    private static Player toPlayer(PlayerState state) {
+        var boardState = state.getBoard();
+        if (boardState == null || boardState.getShips() == null || boardState.getRows() == null || boardState.getStats() == null) {
+            throw new IllegalArgumentException("JSON snapshot of " + state.getName() + " has no complete board");
+        }
+        int size = boardState.getSize();
+        var board = new Board(size);
+        for (ShipState ship : boardState.getShips()) {
+            Snapshots.restoreShip(board, ship.getSize(), ship.getX(), ship.getY(), ship.getAlignment(), ship.getCellsLeft());
+        }
+        if (boardState.getRows().size() != size) {
+            throw new IllegalArgumentException("JSON snapshot board has " + boardState.getRows().size() + " rows, not " + size);
+        }
+        var hits = new long[board.getPlaneWords()];
+        var misses = new long[hits.length];
+        for (int y = 0; y < size; y++) {
+            var row = boardState.getRows().get(y);
+            if (row.length() != size) {
+                throw new IllegalArgumentException("JSON snapshot board row " + (y + 1) + " is not " + size + " cells long");
+            }
+            for (int x = 0; x < size; x++) {
+                var figure = figure(row.charAt(x));
+                int cell = y * size + x;
+                if (figure == Figure.DESTROYED) {
+                    hits[cell >>> 6] |= 1L << cell;
+                } else if (figure == Figure.MISS) {
+                    misses[cell >>> 6] |= 1L << cell;
+                } else if (figure != board.get(cell)) {
+                    throw new IllegalArgumentException("JSON snapshot board has " + figure + " at " + (x + 1) + ", " + (y + 1)
+                            + " which does not match the fleet");
+                }
+            }
+        }
+        for (int word = 0; word < hits.length; word++) {
+            board.restoreStrikes(word, hits[word], misses[word]);
+        }
+        var stats = boardState.getStats();
+        Snapshots.restoreTotals(board.getStats(), stats.getCellsDestroyed(), stats.getCellsLeft(), stats.getShipsWound(),
+                stats.getShipsDestroyed(), stats.getShipsLeft(), stats.getTimesMissed());
+        return new Player(state.getName(), board, state.isHuman(), null);
+    }
+
+    private static Figure figure(char view) {
+        for (Figure figure : Figure.values()) {
+            if (figure.getOwnBoardView().charAt(0) == view) {
+                return figure;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cell '" + view + "' in a JSON snapshot");
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class GameState {
+        private GameStage stage;
+        private PlayerState player;
+        private PlayerState opponent;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class PlayerState {
+        private String name;
+        private boolean human;
+        private BoardState board;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class BoardState {
+        private int size;
+        private List<ShipState> ships;
+        private List<String> rows;
+        private StatsState stats;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class ShipState {
+        private int x;
+        private int y;
+        private int size;
+        private Alignment alignment;
+        private int cellsLeft;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class StatsState {
+        private int cellsDestroyed;
+        private int cellsLeft;
+        private int shipsWound;
+        private int shipsDestroyed;
+        private int shipsLeft;
+        private int timesMissed;
+    }
+
+}
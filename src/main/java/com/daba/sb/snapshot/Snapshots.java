@@ -0,0 +1,31 @@
+package com.daba.sb.snapshot;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.BoardStats;
+
+// Board restoring shared by the snapshot formats
+final class Snapshots {
+
+    private Snapshots() {
+    }
+
+    static void restoreShip(Board board, int size, int x, int y, Alignment alignment, int cellsLeft) {
+        if (!board.placeShip(size, x, y, alignment)) {
+            throw new IllegalArgumentException("Ship of size " + size + " at " + x + ", " + y + " cannot be restored");
+        }
+        var fleet = board.getFleet();
+        board.getStats().restoreCellsLeft(fleet.get(fleet.size() - 1), cellsLeft);
+    }
+
+    static void restoreTotals(BoardStats stats, int cellsDestroyed, int cellsLeft, int shipsWound, int shipsDestroyed,
+                              int shipsLeft, int timesMissed) {
+        stats.setCellsDestroyed(cellsDestroyed);
+        stats.setCellsLeft(cellsLeft);
+        stats.setShipsWound(shipsWound);
+        stats.setShipsDestroyed(shipsDestroyed);
+        stats.setShipsLeft(shipsLeft);
+        stats.setTimesMissed(timesMissed);
+    }
+
+}
@@ -1,44 +1,44 @@
 package com.daba.sb.util;
 
+import com.daba.sb.model.board.BoardGeometry;
 import com.daba.sb.model.board.Dot;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.HashSet;
-import java.util.List;
-import java.util.Random;
 import java.util.Set;
+import java.util.random.RandomGenerator;
 
 public class BoardUtils {
 
-    private static final List<Pair<Integer, Integer>> adjacency = List.of(
-            Pair.of(0, 1),
-            Pair.of(0, -1),
-            Pair.of(1, 0),
-            Pair.of(-1, 0),
-            Pair.of(1, 1),
-            Pair.of(1, -1),
-            Pair.of(-1, 1),
-            Pair.of(-1, -1)
-    );
+    private static final int LETTERS = 26;
 
-    private static final Random random = new Random();
+    // Four letters already cover columns past Board.MAX_SIZE
+    private static final int MAX_LETTERS = 4;
 
-    public static int letterToIndex(String letter) {
-        return (int) letter.toLowerCase().charAt(0) - (int) 'a';
+    // Columns are lettered like spreadsheet columns: A..Z, AA..AZ, BA.. and so on
+    public static int letterToIndex(String letters) {
+        int index = 0;
+        for (char c : letters.toLowerCase().toCharArray()) {
+            index = index * LETTERS + (c - 'a' + 1);
+        }
+        return index - 1;
     }
 
     public static String indexToLetter(int index) {
-        return String.valueOf((char) ('a' + index)).toUpperCase();
+        var letters = new StringBuilder();
+        for (int i = index + 1; i > 0; i = (i - 1) / LETTERS) {
+            letters.append((char) ('A' + (i - 1) % LETTERS));
+        }
+        return letters.reverse().toString();
     }
 
     public static Dot createDot(String raw, int boardSize) {
         if (!isCorrectDot(raw, boardSize)) {
             return null;
         }
-        var parts = raw.split("");
-        var firstNum = BoardUtils.letterToIndex(parts[0]);
-        var secondNum = Integer.parseInt(parts[1]) - 1;
+        int split = letterCount(raw);
+        var firstNum = letterToIndex(raw.substring(0, split));
+        var secondNum = Integer.parseInt(raw.substring(split)) - 1;
         return Dot.of(firstNum, secondNum);
     }
 
@@ -47,13 +47,13 @@ public class BoardUtils {
             if (StringUtils.isEmpty(raw)) {
                 return false;
             }
-            if (raw.length() != 2) {
+            int split = letterCount(raw);
+            if (split == 0 || split > MAX_LETTERS || split == raw.length() || !StringUtils.isNumeric(raw.substring(split))) {
                 return false;
             }
-            var parts = raw.split("");
-            int first = letterToIndex(parts[0]);
-            int second = Integer.parseInt(parts[1]) - 1;
-            if (first > boardSize - 1 || second > boardSize - 1) {
+            int first = letterToIndex(raw.substring(0, split));
+            int second = Integer.parseInt(raw.substring(split)) - 1;
+            if (first > boardSize - 1 || second < 0 || second > boardSize - 1) {
                 return false;
             }
             return true;
@@ -62,19 +62,28 @@ public class BoardUtils {
         }
     }
 
+    private static int letterCount(String raw) {
+        int count = 0;
+        while (count < raw.length() && isLatinLetter(raw.charAt(count))) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isLatinLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
     public static Set<Dot> getAdjacentCells(Dot dot, int boardSize) {
+        var geometry = BoardGeometry.of(boardSize);
         Set<Dot> result = new HashSet<>();
-        for (Pair<Integer, Integer> adj : adjacency) {
-            var x = dot.getX() + adj.getLeft();
-            var y = dot.getY() + adj.getRight();
-            if (x >= 0 && y >= 0 && x < boardSize && y < boardSize) {
-                result.add(Dot.of(x, y));
-            }
+        for (int cell : geometry.neighbours(geometry.cell(dot))) {
+            result.add(geometry.dot(cell));
         }
         return result;
     }
 
-    public static Dot getRandomDot(int boardSize) {
+    public static Dot getRandomDot(int boardSize, RandomGenerator random) {
         return Dot.of(random.nextInt(boardSize), random.nextInt(boardSize));
     }
 
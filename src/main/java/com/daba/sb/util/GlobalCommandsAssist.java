@@ -7,25 +7,22 @@ import com.daba.sb.view.BoardDrawer;
 
 public class GlobalCommandsAssist {
 
-    public static void registerGlobalCommands(GameContext context) {
-        Dialogue dialogue = Dialogue.join();
-
+    public static void registerGlobalCommands(Dialogue dialogue, GameContext context, Runnable quit) {
         dialogue.addGlobalCommand("quit", "Quits game immediately", (d) -> {
             d.say("Game finishes immediately");
-            System.exit(0);
+            quit.run();
         });
-        dialogue.addGlobalCommand("help", "Gives general info about the game and current situation", GlobalCommandsAssist::printHelp);
-        dialogue.addGlobalCommand("myboard", "Shows the board of current player", GlobalCommandsAssist::drawPlayersBoard);
-        dialogue.addGlobalCommand("oppboard", "Shows the board of opponent", GlobalCommandsAssist::drawOpponentsBoard);
+        dialogue.addGlobalCommand("help", "Gives general info about the game and current situation", (d) -> printHelp(d, context));
+        dialogue.addGlobalCommand("myboard", "Shows the board of current player", (d) -> drawPlayersBoard(d, context));
+        dialogue.addGlobalCommand("oppboard", "Shows the board of opponent", (d) -> drawOpponentsBoard(d, context));
         dialogue.addGlobalCommand("whoami", "Shows the name of current player", (d) -> {
             d.say("You're {}", context.getPlayerName());
         });
-        dialogue.addGlobalCommand("score", "Shows current scores", GlobalCommandsAssist::reportScore);
-        dialogue.addGlobalCommand("situation", "Shows current game situation in details", GlobalCommandsAssist::reportSituation);
+        dialogue.addGlobalCommand("score", "Shows current scores", (d) -> reportScore(d, context));
+        dialogue.addGlobalCommand("situation", "Shows current game situation in details", (d) -> reportSituation(d, context));
     }
 
-    public static void printHelp(Dialogue d) {
-        var context = GameContext.getInstance();
+    public static void printHelp(Dialogue d, GameContext context) {
         d.say("This is a Seabattle game. Probably, right now you have to enter something the game requires from you");
         d.say("You can enter one of global commands");
         d.reportGlobalCommands();
@@ -35,30 +32,28 @@ public class GlobalCommandsAssist {
         d.reportCurrentRequest();
     }
 
-    public static void drawPlayersBoard(Dialogue d) {
-        var context = GameContext.getInstance();
+    public static void drawPlayersBoard(Dialogue d, GameContext context) {
         if (context.getPlayer() != null) {
             d.say("{}, this is your board", context.getPlayerName());
-            BoardDrawer.drawOwn(context.getPlayer().getBoard());
+            BoardDrawer.drawOwn(d, context.getPlayer().getBoard());
         } else {
             d.say("There is no board at the moment");
         }
     }
 
-    public static void drawOpponentsBoard(Dialogue d) {
-        var context = GameContext.getInstance();
+    public static void drawOpponentsBoard(Dialogue d, GameContext context) {
         if (context.getOpponent() != null) {
             d.say("{}, this is the board of your opponent", context.getPlayerName());
-            BoardDrawer.drawOpponents(context.getOpponent().getBoard());
+            BoardDrawer.drawOpponents(d, context.getOpponent().getBoard());
         } else {
             d.say("There is no board at the moment");
         }
     }
 
-    public static void reportScore(Dialogue d) {
-        var context = GameContext.getInstance();
+    public static void reportScore(Dialogue d, GameContext context) {
         if (context.getStage() != GameStage.GAME) {
             d.say("Game is not started yet");
+            return;
         }
         var player = context.getPlayer();
         var opponent = context.getOpponent();
@@ -66,10 +61,10 @@ public class GlobalCommandsAssist {
         d.say("Player {} destroyed {} ships", opponent.getName(), player.getBoard().getStats().getShipsDestroyed());
     }
 
-    public static void reportSituation(Dialogue d) {
-        var context = GameContext.getInstance();
+    public static void reportSituation(Dialogue d, GameContext context) {
         if (context.getStage() != GameStage.GAME) {
             d.say("Game is not started yet");
+            return;
         }
         var player = context.getPlayer();
         var opponent = context.getOpponent();
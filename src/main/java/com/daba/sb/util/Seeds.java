@@ -0,0 +1,20 @@
+package com.daba.sb.util;
+
+import java.util.SplittableRandom;
+
+// Every game draws from a generator of its own, derived from one master seed and the game number, so games can run
+// in any order and on any thread without sharing generator state, and any one of them can be played again alone
+public class Seeds {
+
+    public static SplittableRandom forGame(long masterSeed, long game) {
+        return new SplittableRandom(mix(masterSeed ^ mix(game)));
+    }
+
+    // The SplitMix64 finalizer: neighbouring inputs give unrelated outputs
+    public static long mix(long z) {
+        z = (z ^ z >>> 30) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ z >>> 27) * 0x94d049bb133111ebL;
+        return z ^ z >>> 31;
+    }
+
+}
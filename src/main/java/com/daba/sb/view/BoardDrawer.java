@@ -1,55 +1,25 @@
 package com.daba.sb.view;
 
-import com.daba.sb.util.BoardUtils;
 import com.daba.sb.Dialogue;
 import com.daba.sb.model.board.Board;
-import com.daba.sb.model.board.Figure;
-
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+// One-off drawing; views that redraw the same board keep a BoardRenderer instead
 public class BoardDrawer {
 
-    private static final String DEL = "|";
-
-    private static final Dialogue dialogue = Dialogue.join();
-
-    public static void drawOwn(Board board) {
-        drawBoard(board, true);
+    public static void drawOwn(Dialogue dialogue, Board board) {
+        drawOwn(dialogue, board, Viewport.defaultFor(board.getSize()));
     }
 
-    public static void drawOpponents(Board board) {
-        drawBoard(board, false);
+    public static void drawOpponents(Dialogue dialogue, Board board) {
+        drawOpponents(dialogue, board, Viewport.defaultFor(board.getSize()));
     }
-    private static void drawBoard(Board board, boolean isOwn) {
-        // Header
-        var row = new StringBuilder();
-        row.append(" ").append(DEL);
-        row.append(
-                IntStream.range(0, board.getSize())
-                        .boxed()
-                        .map(BoardUtils::indexToLetter)
-                        .collect(Collectors.joining(DEL)));
-        row.append(DEL);
-        dialogue.say(row.toString());
 
-        // Content
-        for (int v = 0; v < board.getSize(); v++) {
-            row = new StringBuilder();
-            row.append(v + 1).append(DEL);
-            int finalV = v;
-            row.append(
-                    IntStream.range(0, board.getSize())
-                            .boxed()
-                            .map(h -> getFigureView(board.get(h, finalV), isOwn))
-                            .collect(Collectors.joining(DEL)));
-            row.append(DEL);
-            dialogue.say(row.toString());
-        }
+    public static void drawOwn(Dialogue dialogue, Board board, Viewport viewport) {
+        new BoardRenderer(board, true).draw(dialogue, viewport);
     }
 
-    private static String getFigureView(Figure figure, boolean isOwn) {
-        return isOwn ? figure.getOwnBoardView() : figure.getEnemyBoardView();
+    public static void drawOpponents(Dialogue dialogue, Board board, Viewport viewport) {
+        new BoardRenderer(board, false).draw(dialogue, viewport);
     }
 
 }
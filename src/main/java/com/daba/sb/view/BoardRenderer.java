@@ -0,0 +1,165 @@
+package com.daba.sb.view;
+
+import com.daba.sb.Dialogue;
+import com.daba.sb.metrics.Metrics;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.util.BoardUtils;
+
+/**
+ * Draws one board from one side again and again. A frame is composed into a reused buffer and written at once;
+ * rows keep their text between frames and only those changed on the board since the previous frame are rebuilt.
+ * In ANSI mode the board stays at fixed screen lines and a frame rewrites just the changed rows in place.
+ */
+public class BoardRenderer {
+
+    private static final char DEL = '|';
+
+    private static final char NEW_LINE = '\n';
+
+    private static final String SAVE_CURSOR = "\u001b7";
+
+    private static final String RESTORE_CURSOR = "\u001b8";
+
+    private final Board board;
+    private final boolean own;
+    private final boolean ansi;
+    private final int ansiTop;
+    private final StringBuilder frame = new StringBuilder();
+    private final StringBuilder row = new StringBuilder();
+
+    private Viewport viewport;
+    private String[] rows;
+    private long renderedStamp;
+    // Column headers only depend on the visible columns and the label width; only the latest one is kept, a viewport
+    // panning over a large board would otherwise leave one behind per position
+    private long headerKey = -1;
+    private String header;
+
+    public BoardRenderer(Board board, boolean own) {
+        this(board, own, false, 0);
+    }
+
+    private BoardRenderer(Board board, boolean own, boolean ansi, int ansiTop) {
+        this.board = board;
+        this.own = own;
+        this.ansi = ansi;
+        this.ansiTop = ansiTop;
+    }
+
+    // Keeps the board at the given 1-based screen line of an ANSI terminal
+    public static BoardRenderer ansi(Board board, boolean own, int screenLine) {
+        if (screenLine < 1) {
+            throw new IllegalArgumentException("Screen lines start from 1");
+        }
+        return new BoardRenderer(board, own, true, screenLine);
+    }
+
+    public void draw(Dialogue dialogue) {
+        draw(dialogue, Viewport.defaultFor(board.getSize()));
+    }
+
+    public void draw(Dialogue dialogue, Viewport viewport) {
+        var text = render(viewport);
+        if (text.length() > 0) {
+            dialogue.say("{}", text);
+        }
+    }
+
+    // The frame to write; empty in ANSI mode when nothing has changed. Valid until the next call
+    public CharSequence render(Viewport viewport) {
+        long started = System.nanoTime();
+        var text = compose(viewport);
+        Metrics.RENDER.record(System.nanoTime() - started);
+        return text;
+    }
+
+    private CharSequence compose(Viewport viewport) {
+        boolean full = rows == null || !viewport.equals(this.viewport);
+        if (full) {
+            this.viewport = viewport;
+            rows = new String[viewport.getHeight()];
+        }
+        int left = viewport.getX();
+        int right = left + viewport.getWidth();
+        int top = viewport.getY();
+        int bottom = top + viewport.getHeight();
+        int labelWidth = String.valueOf(bottom).length();
+        int cellWidth = BoardUtils.indexToLetter(right - 1).length();
+
+        frame.setLength(0);
+        int line = 0;
+        if (full || !ansi) {
+            if (!viewport.coversWholeBoard(board.getSize())) {
+                appendLine(line++, "Showing columns " + BoardUtils.indexToLetter(left) + "-" + BoardUtils.indexToLetter(right - 1)
+                        + ", rows " + (top + 1) + "-" + bottom + " of " + board.getSize() + "x" + board.getSize() + " board");
+            }
+            appendLine(line++, header(left, right, labelWidth, cellWidth));
+        } else {
+            line = viewport.coversWholeBoard(board.getSize()) ? 1 : 2;
+        }
+        for (int v = top; v < bottom; v++, line++) {
+            boolean dirty = full || board.getRowStamp(v) > renderedStamp;
+            if (dirty) {
+                rows[v - top] = renderRow(v, left, right, labelWidth, cellWidth);
+            }
+            if (dirty || !ansi) {
+                appendLine(line, rows[v - top]);
+            }
+        }
+        renderedStamp = board.getChangeStamp();
+        if (ansi && frame.length() > 0) {
+            frame.insert(0, SAVE_CURSOR).append(RESTORE_CURSOR);
+        } else if (frame.length() > 0) {
+            frame.setLength(frame.length() - 1);
+        }
+        return frame;
+    }
+
+    private void appendLine(int line, String text) {
+        if (ansi) {
+            // Absolute position, then clear the old line before writing the new one
+            frame.append("\u001b[").append(ansiTop + line).append(";1H\u001b[2K").append(text);
+        } else {
+            frame.append(text).append(NEW_LINE);
+        }
+    }
+
+    private String renderRow(int v, int left, int right, int labelWidth, int cellWidth) {
+        row.setLength(0);
+        var label = String.valueOf(v + 1);
+        pad(row, labelWidth - label.length());
+        row.append(label).append(DEL);
+        for (int h = left; h < right; h++) {
+            var figure = board.get(h, v);
+            row.append(own ? figure.getOwnBoardView() : figure.getEnemyBoardView());
+            pad(row, cellWidth - 1);
+            row.append(DEL);
+        }
+        return row.toString();
+    }
+
+    private String header(int left, int right, int labelWidth, int cellWidth) {
+        long key = ((long) left << 32) | ((long) right << 8) | labelWidth;
+        if (key != headerKey) {
+            row.setLength(0);
+            pad(row, labelWidth);
+            row.append(DEL);
+            for (int h = left; h < right; h++) {
+                var letter = BoardUtils.indexToLetter(h);
+                row.append(letter);
+                pad(row, cellWidth - letter.length());
+                row.append(DEL);
+            }
+            header = row.toString();
+            headerKey = key;
+        }
+        return header;
+    }
+
+    private static void pad(StringBuilder target, int count) {
+        for (int i = 0; i < count; i++) {
+            target.append(' ');
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.daba.sb.view;
+
+import com.daba.sb.model.board.Dot;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Viewport {
+
+    // Larger boards are shown through a window of at most this many rows and columns
+    public static final int MAX_SIDE = 26;
+
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+
+    public static Viewport of(int x, int y, int width, int height, int boardSize) {
+        int left = Math.max(0, Math.min(x, boardSize - 1));
+        int top = Math.max(0, Math.min(y, boardSize - 1));
+        return new Viewport(left, top, Math.max(1, Math.min(width, boardSize - left)), Math.max(1, Math.min(height, boardSize - top)));
+    }
+
+    public static Viewport defaultFor(int boardSize) {
+        return of(0, 0, MAX_SIDE, MAX_SIDE, boardSize);
+    }
+
+    public static Viewport around(Dot center, int boardSize) {
+        int side = Math.min(MAX_SIDE, boardSize);
+        int left = Math.max(0, Math.min(center.getX() - side / 2, boardSize - side));
+        int top = Math.max(0, Math.min(center.getY() - side / 2, boardSize - side));
+        return new Viewport(left, top, side, side);
+    }
+
+    public boolean coversWholeBoard(int boardSize) {
+        return x == 0 && y == 0 && width == boardSize && height == boardSize;
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.daba.sb.ai;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.board.Figure;
+import com.daba.sb.model.process.StrikeResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+class FleetSamplerTest {
+
+    private static final int SIZE = 4;
+    private static final List<ShipConfig> FLEET = List.of(new ShipConfig(1, 2), new ShipConfig(2, 1));
+    private static final int SAMPLES = 400_000;
+    private static final double TOLERANCE = 0.01;
+
+    // The hit is taken by the two-cell ship in some fleets and by a single in others, so the number of singles left
+    // after the hits differs from draw to draw
+    @Test
+    void coverageMatchesThePosteriorOfAllFleets() {
+        var board = new Board(SIZE);
+        assertThat(board.placeShip(2, Dot.of(1, 1), Alignment.HORIZONTAL), is(true));
+        assertThat(board.placeShip(1, Dot.of(0, 3), Alignment.HORIZONTAL), is(true));
+        assertThat(board.placeShip(1, Dot.of(3, 3), Alignment.HORIZONTAL), is(true));
+        assertThat(board.strike(Dot.of(1, 1)), is(StrikeResult.WOUND));
+        assertThat(board.strike(Dot.of(3, 0)), is(StrikeResult.MISS));
+
+        var sampler = FleetSampler.observe(PlacementTable.of(board.getGeometry(), new int[]{1, 2}), board, FLEET);
+        var worker = sampler.worker(new SplittableRandom(7))
+                .sampleUntil(System.nanoTime() + TimeUnit.MINUTES.toNanos(1), SAMPLES);
+        var coverage = worker.getCoverage();
+        double total = 0;
+        for (double weight : coverage) {
+            total += weight;
+        }
+        // Every fleet covers the same number of unknown cells: all its cells but the hit
+        double cellsPerFleet = 2 + 1 + 1 - 1;
+        var exact = exactPosterior(board);
+
+        assertThat(worker.getSamples(), is((long) SAMPLES));
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            double estimate = total == 0 ? 0 : coverage[cell] * cellsPerFleet / total;
+            assertThat("cell " + cell, estimate, closeTo(exact[cell], TOLERANCE));
+        }
+    }
+
+    // Share of all fleets that agree with the board covering each unknown cell, every fleet counted once
+    private static double[] exactPosterior(Board board) {
+        var pairs = new ArrayList<int[]>();
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            if (cell % SIZE + 1 < SIZE) {
+                pairs.add(new int[]{cell, cell + 1});
+            }
+            if (cell + SIZE < SIZE * SIZE) {
+                pairs.add(new int[]{cell, cell + SIZE});
+            }
+        }
+        var counts = new double[SIZE * SIZE];
+        int fleets = 0;
+        for (int[] pair : pairs) {
+            for (int first = 0; first < SIZE * SIZE; first++) {
+                for (int second = first + 1; second < SIZE * SIZE; second++) {
+                    int[][] ships = {pair, {first}, {second}};
+                    if (!agrees(board, ships)) {
+                        continue;
+                    }
+                    fleets++;
+                    for (int[] ship : ships) {
+                        for (int cell : ship) {
+                            if (board.get(cell) != Figure.DESTROYED) {
+                                counts[cell]++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (int cell = 0; cell < counts.length; cell++) {
+            counts[cell] /= fleets;
+        }
+        return counts;
+    }
+
+    private static boolean agrees(Board board, int[][] ships) {
+        var owner = new int[SIZE * SIZE];
+        for (int s = 0; s < ships.length; s++) {
+            for (int cell : ships[s]) {
+                if (owner[cell] != 0 || board.get(cell) == Figure.MISS) {
+                    return false;
+                }
+                owner[cell] = s + 1;
+            }
+        }
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            if (board.get(cell) == Figure.DESTROYED && owner[cell] == 0) {
+                return false;
+            }
+            if (owner[cell] == 0) {
+                continue;
+            }
+            for (int other = 0; other < SIZE * SIZE; other++) {
+                boolean near = Math.abs(cell % SIZE - other % SIZE) <= 1 && Math.abs(cell / SIZE - other / SIZE) <= 1;
+                if (near && owner[other] != 0 && owner[other] != owner[cell]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
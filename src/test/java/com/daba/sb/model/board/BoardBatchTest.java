@@ -0,0 +1,86 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.FleetPlacer;
+import com.daba.sb.process.ShipsOperations;
+import com.daba.sb.util.Seeds;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Plays the same shots on a batch and on one Board per game and expects the same results and planes every round
+class BoardBatchTest {
+
+    // Sizes above 16 have no halo mask tables, a kill there walks the ring around the ship
+    private static final int[] SIZES = {5, 8, 10, 12, 16, 17, 20, 33};
+
+    private static final List<ShipConfig> SMALL_FLEET = List.of(new ShipConfig(1, 3), new ShipConfig(2, 1));
+
+    @Test
+    void scalarKernelStrikesLikeBoard() {
+        for (int size : SIZES) {
+            playAgainstBoards(size, words -> new ScalarBatchKernel());
+        }
+    }
+
+    // Only built and run with the vector profile
+    @Test
+    void vectorKernelStrikesLikeBoard() {
+        var vector = BatchKernel.vector();
+        assumeTrue(vector != null, "VectorBatchKernel is not built or jdk.incubator.vector is not added");
+        assertThat(vector.isVectorized(), is(true));
+        for (int size : SIZES) {
+            playAgainstBoards(size, words -> BatchKernel.vector());
+        }
+    }
+
+    // Boards start with a few strikes of their own; every round some boards sit out and the others shoot any cell,
+    // struck before or not, until every game is over
+    private static void playAgainstBoards(int size, IntFunction<BatchKernel> kernel) {
+        var random = Seeds.forGame(size, 0);
+        var fleet = size < 8 ? SMALL_FLEET : ShipsOperations.DEFAULT_SHIPS;
+        int count = 37 + size;
+        var boards = new Board[count];
+        var batch = new BoardBatch(size, count, 10, kernel);
+        for (int b = 0; b < count; b++) {
+            boards[b] = new Board(size);
+            FleetPlacer.place(boards[b], fleet, random.split());
+            int strikes = random.nextInt(size);
+            for (int i = 0; i < strikes; i++) {
+                boards[b].strike(random.nextInt(size * size));
+            }
+            batch.load(b, boards[b]);
+        }
+        var cells = new int[count];
+        var results = new StrikeResult[count];
+        while (batch.countGamesOver() < count) {
+            for (int b = 0; b < count; b++) {
+                cells[b] = batch.isGameOver(b) || random.nextInt(10) == 0 ? -1 : random.nextInt(size * size);
+            }
+            batch.strike(cells, results);
+            for (int b = 0; b < count; b++) {
+                var expected = cells[b] < 0 ? null : boards[b].strike(cells[b]);
+                if (results[b] != expected || batch.isGameOver(b) != boards[b].isGameOver() || !samePlanes(batch, b, boards[b])) {
+                    fail("Size " + size + ", board " + b + ", cell " + cells[b] + ": " + results[b] + " instead of " + expected);
+                }
+            }
+        }
+    }
+
+    private static boolean samePlanes(BoardBatch batch, int b, Board board) {
+        for (int w = 0; w < board.getPlaneWords(); w++) {
+            if (batch.getHitWord(b, w) != board.getHitWord(w) || batch.getMissWord(b, w) != board.getMissWord(w)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
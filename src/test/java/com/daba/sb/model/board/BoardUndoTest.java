@@ -0,0 +1,98 @@
+package com.daba.sb.model.board;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.process.StrikeResult;
+import com.daba.sb.process.FleetPlacer;
+import com.daba.sb.process.ShipsOperations;
+import com.daba.sb.util.Seeds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Strikes and takes the strikes back again, expecting the board as it was before each of them
+class BoardUndoTest {
+
+    private static final int[] SIZES = {5, 8, 10, 12, 20};
+    private static final int GAMES = 100;
+
+    private static final List<ShipConfig> SMALL_FLEET = List.of(new ShipConfig(1, 3), new ShipConfig(2, 1));
+
+    // Boards start with strikes that cannot be taken back, then shoot any cell, struck before or not, and undo it all
+    @Test
+    void undoRestoresEveryStrikeOnEveryStorage() {
+        for (var mode : StorageMode.values()) {
+            for (int size : SIZES) {
+                for (int game = 0; game < GAMES; game++) {
+                    playAndUndo(mode, size, game);
+                }
+            }
+        }
+    }
+
+    // The halo of the kill takes in misses from before it, and taking the kill back must leave those misses alone
+    @Test
+    void undoingAKillKeepsTheMissesItsHaloCovered() {
+        for (var mode : StorageMode.values()) {
+            var board = new Board(8, mode);
+            assertThat(board.placeShip(2, Dot.of(2, 2), Alignment.HORIZONTAL), is(true));
+            assertThat(board.placeShip(1, Dot.of(6, 6), Alignment.HORIZONTAL), is(true));
+            assertThat(board.strike(Dot.of(1, 1)), is(StrikeResult.MISS));
+            board.setReversible(true);
+            var before = new ArrayList<String>();
+            var results = new ArrayList<StrikeResult>();
+            for (var dot : List.of(Dot.of(4, 3), Dot.of(2, 2), Dot.of(3, 2))) {
+                before.add(snapshot(board));
+                results.add(board.strike(dot));
+            }
+            assertThat(results, is(List.of(StrikeResult.MISS, StrikeResult.WOUND, StrikeResult.KILLED)));
+
+            for (int i = results.size() - 1; i >= 0; i--) {
+                assertThat(board.undo(), is(results.get(i)));
+                assertThat(mode + ", strike " + i, snapshot(board), is(before.get(i)));
+            }
+            assertThat(board.get(Dot.of(1, 1)), is(Figure.MISS));
+        }
+    }
+
+    private static void playAndUndo(StorageMode mode, int size, int game) {
+        var random = Seeds.forGame(size * 31L + mode.ordinal(), game);
+        var board = new Board(size, mode);
+        FleetPlacer.place(board, size < 8 ? SMALL_FLEET : ShipsOperations.DEFAULT_SHIPS, random.split());
+        int early = random.nextInt(size * size / 2);
+        for (int i = 0; i < early; i++) {
+            board.strike(random.nextInt(size * size));
+        }
+        board.setReversible(true);
+        var before = new ArrayList<String>();
+        var results = new ArrayList<StrikeResult>();
+        int strikes = random.nextInt(1, size * size * 2);
+        for (int i = 0; i < strikes && !board.isGameOver(); i++) {
+            before.add(snapshot(board));
+            results.add(board.strike(random.nextInt(size * size)));
+        }
+        for (int i = results.size() - 1; i >= 0; i--) {
+            var result = board.undo();
+            if (result != results.get(i) || !snapshot(board).equals(before.get(i))) {
+                fail(mode + ", size " + size + ", game " + game + ", strike " + i + ": undo gave " + result
+                        + " instead of " + results.get(i) + "\n" + snapshot(board) + "\ninstead of\n" + before.get(i));
+            }
+        }
+        assertThat(board.getUndoDepth(), is(0));
+    }
+
+    // Planes, stats with the cells left of every ship, and whether the game is over
+    private static String snapshot(Board board) {
+        var snapshot = new StringBuilder();
+        for (int w = 0; w < board.getPlaneWords(); w++) {
+            snapshot.append(board.getHitWord(w)).append('/').append(board.getMissWord(w)).append(' ');
+        }
+        return snapshot.append(board.getStats()).append(' ').append(board.isGameOver()).toString();
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.daba.sb.process;
+
+import com.daba.sb.process.move.impl.ProbabilityMove;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class TournamentTest {
+
+    // More than one leaf task, so games are spread over the workers differently in either pool
+    private static final int GAMES = 300;
+
+    @Test
+    void sameSeedPlaysTheSameGamesOnAnyNumberOfWorkers() {
+        var engine = new GameEngine(10, ShipsOperations.DEFAULT_SHIPS);
+        var single = new ForkJoinPool(1);
+        var several = new ForkJoinPool(4);
+        try {
+            var once = new Tournament(engine, ProbabilityMove::new, ProbabilityMove::new, 42, single).play(GAMES);
+            var again = new Tournament(engine, ProbabilityMove::new, ProbabilityMove::new, 42, several).play(GAMES);
+
+            assertThat(once.getGames(), is(GAMES));
+            assertThat(again, is(once));
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+}
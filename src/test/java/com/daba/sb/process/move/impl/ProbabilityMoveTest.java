@@ -0,0 +1,33 @@
+package com.daba.sb.process.move.impl;
+
+import com.daba.sb.model.Alignment;
+import com.daba.sb.model.ShipConfig;
+import com.daba.sb.model.board.Board;
+import com.daba.sb.model.board.Dot;
+import com.daba.sb.model.process.StrikeResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.isOneOf;
+
+class ProbabilityMoveTest {
+
+    // Twelve hits on one placement used to weigh 64^12, which wraps around to nothing, and the singles then drew the AI
+    // away to hunt
+    @Test
+    void finishesALongShipWithManyHits() {
+        var board = new Board(20);
+        assertThat(board.placeShip(16, Dot.of(2, 5), Alignment.HORIZONTAL), is(true));
+        for (int x = 5; x <= 16; x++) {
+            assertThat(board.strike(Dot.of(x, 5)), is(StrikeResult.WOUND));
+        }
+        var move = new ProbabilityMove(List.of(new ShipConfig(1, 16), new ShipConfig(10, 1)), new SplittableRandom(1));
+
+        assertThat(move.make(board).getDot(), is(isOneOf(Dot.of(4, 5), Dot.of(17, 5))));
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.daba.sb.server;
+
+import com.daba.sb.util.BoardUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+class GameServerTest {
+
+    private static final int BOARD_SIZE = 10;
+    private static final int READ_TIMEOUT_MILLIS = 60_000;
+
+    private GameServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 2);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void playsAWholeGameOverALocalSocket() throws IOException {
+        var transcript = play();
+
+        assertThat(transcript, containsString("Game over!"));
+    }
+
+    @Test
+    void playsManyGamesAtOnceOnOneSelectorLoop() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            var games = new ArrayList<Future<String>>();
+            for (int i = 0; i < 16; i++) {
+                games.add(clients.submit(this::play));
+            }
+            for (Future<String> game : games) {
+                assertThat(game.get(), containsString("Game over!"));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    // Answers every prompt and shoots the cells in order until the server ends the game and closes the connection
+    private String play() throws IOException {
+        try (var socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            var out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            var shots = cells();
+            var transcript = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                transcript.append(line).append('\n');
+                if (line.contains("Enter board size")) {
+                    out.println(BOARD_SIZE);
+                } else if (line.contains("custom ship configs")) {
+                    out.println("n");
+                } else if (line.contains("Enter player name")) {
+                    out.println("Tester");
+                } else if (line.contains("place ships randomly")) {
+                    out.println("y");
+                } else if (line.contains("Enter your move")) {
+                    out.println(shots.remove(0));
+                }
+            }
+            return transcript.toString();
+        }
+    }
+
+    private static List<String> cells() {
+        var cells = new ArrayList<String>();
+        for (int y = 1; y <= BOARD_SIZE; y++) {
+            for (int x = 0; x < BOARD_SIZE; x++) {
+                cells.add(BoardUtils.indexToLetter(x) + y);
+            }
+        }
+        return cells;
+    }
+
+}